@@ -0,0 +1,68 @@
+package de.amr.yt.pacman.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.model.GhostState;
+
+/**
+ * The <code>GameModel.check*</code> methods executed each PLAYING tick. The situation is chosen such that no collision
+ * happens, so the state does not change between invocations (the common case during play).
+ * 
+ * @author Armin Reichert
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean pacManPowered;
+
+	private GameModel game;
+
+	@Setup
+	public void setup() {
+		game = Fixtures.playingGame(600).game;
+		// move Pac-Man to a tile without food, away from the ghosts
+		game.pacMan.placeAtTile(game.pacManHome, 0, 0);
+		game.checkPelletEaten();
+		game.checkPowerPelletEaten();
+		for (Ghost ghost : game.ghosts) {
+			ghost.placeAtTile(game.ghostScatterTargets[ghost.id], 0, 0);
+			ghost.state = pacManPowered ? GhostState.FRIGHTENED : GhostState.CHASING;
+		}
+		game.pacMan.powerCountdown = pacManPowered ? 1_000_000 : 0;
+	}
+
+	@Benchmark
+	public void allChecks(Blackhole bh) {
+		bh.consume(game.checkPelletEaten());
+		bh.consume(game.checkPowerPelletEaten());
+		bh.consume(game.checkBonusEaten());
+		bh.consume(game.checkAllPelletsEaten());
+		bh.consume(game.checkPacManKilledByGhost(game.pacMan.tile()));
+		bh.consume(game.checkGhostKilledByPacMan());
+	}
+
+	@Benchmark
+	public boolean checkPacManKilledByGhost() {
+		return game.checkPacManKilledByGhost(game.pacMan.tile());
+	}
+
+	@Benchmark
+	public boolean checkGhostKilledByPacMan() {
+		return game.checkGhostKilledByPacMan();
+	}
+}
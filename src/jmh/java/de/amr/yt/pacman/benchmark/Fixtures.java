@@ -0,0 +1,52 @@
+package de.amr.yt.pacman.benchmark;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.GameState;
+import de.amr.yt.pacman.controller.Steering;
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.XorShiftRandom;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * Reproducible game situations used by the benchmarks.
+ * 
+ * @author Armin Reichert
+ */
+class Fixtures {
+
+	static final long SEED = 42;
+
+	/**
+	 * @param seed seed of the steering
+	 * @return steering choosing a pseudo-random direction every half second
+	 */
+	static Steering scriptedSteering(long seed) {
+		var random = new XorShiftRandom(seed);
+		var directions = Direction.values();
+		long[] ticks = { 0 };
+		return game -> ticks[0]++ % 30 == 0 ? directions[random.nextInt(directions.length)] : null;
+	}
+
+	/**
+	 * Creates a game controlled by a scripted steering and runs it until it has been in the PLAYING state for the given
+	 * number of ticks (or has left it).
+	 * 
+	 * @param playingTicks number of ticks to play
+	 * @return the game controller
+	 */
+	static GameController playingGame(int playingTicks) {
+		Sounds.setEnabled(false);
+		var controller = new GameController(new GameModel(new GameClock(), SEED));
+		controller.steering = scriptedSteering(SEED);
+		controller.enterState(GameState.LEVEL_STARTING);
+		while (controller.state() != GameState.PLAYING) {
+			controller.updateState();
+		}
+		for (int i = 0; i < playingTicks && controller.state() == GameState.PLAYING; ++i) {
+			controller.updateState();
+		}
+		return controller;
+	}
+}
@@ -0,0 +1,84 @@
+package de.amr.yt.pacman.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.lib.StateBuffer;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.model.GhostState;
+
+/**
+ * Ghost movement per ghost state: <code>exploreWorld</code> and the complete <code>Ghost.update</code> (targeting +
+ * movement). Each invocation restores a snapshot and then runs {@link #TICKS} ticks, the reported time is per tick and
+ * ghost. See {@link PlayingBenchmark#restoreSnapshot()} for the restore overhead and
+ * {@link PlayingBenchmark#pacManExploreWorld()} for Pac-Man.
+ * 
+ * @author Armin Reichert
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GhostBenchmark {
+
+	static final int TICKS = 100;
+
+	@Param({ "CHASING", "SCATTERING", "FRIGHTENED", "EATEN" })
+	public GhostState ghostState;
+
+	private GameController controller;
+	private GameModel game;
+	private final StateBuffer snapshot = new StateBuffer();
+
+	@Setup
+	public void setup() {
+		controller = Fixtures.playingGame(600);
+		game = controller.game;
+		for (Ghost ghost : game.ghosts) {
+			ghost.state = ghostState;
+		}
+		if (ghostState == GhostState.FRIGHTENED) {
+			game.pacMan.powerCountdown = 1_000_000;
+		}
+		controller.saveState(snapshot);
+	}
+
+	private void restore() {
+		snapshot.rewind();
+		controller.restoreState(snapshot);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TICKS * 4)
+	public float ghostExploreWorld() {
+		restore();
+		for (int i = 0; i < TICKS; ++i) {
+			for (Ghost ghost : game.ghosts) {
+				ghost.exploreWorld();
+			}
+		}
+		return game.ghosts[0].x;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TICKS * 4)
+	public float ghostUpdate() {
+		restore();
+		for (int i = 0; i < TICKS; ++i) {
+			for (Ghost ghost : game.ghosts) {
+				ghost.update();
+			}
+		}
+		return game.ghosts[0].x;
+	}
+}
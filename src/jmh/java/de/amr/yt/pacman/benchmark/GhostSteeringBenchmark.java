@@ -0,0 +1,78 @@
+package de.amr.yt.pacman.benchmark;
+
+import static de.amr.yt.pacman.lib.Vector2.v;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.Vector2;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.test.lib.LegacyGhostSteering;
+
+/**
+ * The ghost steering decision for a grid of target tiles: the original Euclidean search against the table-driven
+ * {@link Ghost#directionTowards(int, int)}. The setup fails if both ever decide differently. The reported time is per
+ * decision.
+ * 
+ * @author Armin Reichert
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GhostSteeringBenchmark {
+
+	static final int TARGETS = 64;
+
+	private GameModel game;
+	private final Vector2[] targets = new Vector2[TARGETS];
+
+	@Setup
+	public void setup() {
+		game = Fixtures.playingGame(600).game;
+		for (int i = 0; i < TARGETS; ++i) {
+			targets[i] = v(-4 + 5 * (i % 8), -4 + 6 * (i / 8));
+		}
+		for (Ghost ghost : game.ghosts) {
+			for (Vector2 target : targets) {
+				Direction legacy = LegacyGhostSteering.directionTowards(ghost, target);
+				if (ghost.directionTowards(target.x, target.y) != legacy) {
+					throw new IllegalStateException("Different decision for %s, target %s".formatted(ghost, target));
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TARGETS * 4)
+	public int euclideanSearch() {
+		int hash = 0;
+		for (Ghost ghost : game.ghosts) {
+			for (Vector2 target : targets) {
+				hash += LegacyGhostSteering.directionTowards(ghost, target).ordinal();
+			}
+		}
+		return hash;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TARGETS * 4)
+	public int tableDriven() {
+		int hash = 0;
+		for (Ghost ghost : game.ghosts) {
+			for (Vector2 target : targets) {
+				hash += ghost.directionTowards(target.x, target.y).ordinal();
+			}
+		}
+		return hash;
+	}
+}
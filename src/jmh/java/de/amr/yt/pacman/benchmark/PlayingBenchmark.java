@@ -0,0 +1,69 @@
+package de.amr.yt.pacman.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.lib.StateBuffer;
+
+/**
+ * Complete ticks of the game state machine starting in the PLAYING state of a scripted game and Pac-Man's
+ * <code>exploreWorld</code>. Each invocation restores the snapshot taken when PLAYING was entered and then runs a
+ * number of ticks, times are per tick.
+ * 
+ * @author Armin Reichert
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PlayingBenchmark {
+
+	static final int TICKS = 600;
+
+	private GameController controller;
+	private final StateBuffer snapshot = new StateBuffer();
+
+	@Setup
+	public void setup() {
+		controller = Fixtures.playingGame(0);
+		controller.saveState(snapshot);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TICKS)
+	public long playingTicks() {
+		snapshot.rewind();
+		controller.restoreState(snapshot);
+		controller.steering = Fixtures.scriptedSteering(Fixtures.SEED);
+		for (int i = 0; i < TICKS; ++i) {
+			controller.updateState();
+		}
+		return controller.game.score;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GhostBenchmark.TICKS)
+	public float pacManExploreWorld() {
+		snapshot.rewind();
+		controller.restoreState(snapshot);
+		for (int i = 0; i < GhostBenchmark.TICKS; ++i) {
+			controller.game.pacMan.exploreWorld();
+		}
+		return controller.game.pacMan.x;
+	}
+
+	@Benchmark
+	public int restoreSnapshot() {
+		snapshot.rewind();
+		controller.restoreState(snapshot);
+		return controller.game.score;
+	}
+}
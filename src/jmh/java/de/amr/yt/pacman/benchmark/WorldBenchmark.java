@@ -0,0 +1,101 @@
+package de.amr.yt.pacman.benchmark;
+
+import static de.amr.yt.pacman.lib.Vector2.v;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.World;
+
+/**
+ * World tile queries and food consumption. Times are per tile.
+ * 
+ * @author Armin Reichert
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class WorldBenchmark {
+
+	static final int TILES = World.ROWS * World.COLS;
+	static final Direction[] DIRECTIONS = Direction.values();
+
+	private GameModel game;
+	private World world;
+
+	@Setup
+	public void setup() {
+		game = new GameModel();
+		world = game.world;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TILES)
+	public int tileQueries() {
+		int count = 0;
+		for (int row = 0; row < World.ROWS; ++row) {
+			for (int col = 0; col < World.COLS; ++col) {
+				if (world.isBlocked(row, col)) {
+					++count;
+				}
+				if (world.isTunnel(row, col)) {
+					++count;
+				}
+				if (world.isWaypoint(row, col)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TILES)
+	public int neighborQueries() {
+		int count = 0;
+		for (int row = 0; row < World.ROWS; ++row) {
+			for (int col = 0; col < World.COLS; ++col) {
+				for (Direction dir : DIRECTIONS) {
+					if (world.isBlocked(v(col, row).neighbor(dir))) {
+						++count;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TILES)
+	public int consumeAllPellets() {
+		int count = 0;
+		for (int row = 0; row < World.ROWS; ++row) {
+			for (int col = 0; col < World.COLS; ++col) {
+				if (world.consumePelletAt(v(col, row)) || world.consumePowerPelletAt(v(col, row))) {
+					++count;
+				}
+			}
+		}
+		world.resetFood();
+		return count;
+	}
+
+	@Benchmark
+	public int iterateRemainingPellets() {
+		int sum = 0;
+		for (int i = world.nextPelletIndex(0); i != -1; i = world.nextPelletIndex(i + 1)) {
+			sum += i;
+		}
+		return sum;
+	}
+}
@@ -23,8 +23,10 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.controller;
 
-import static de.amr.yt.pacman.lib.Logging.log;
+import static de.amr.yt.pacman.lib.Logging.debug;
 
+import de.amr.yt.pacman.lib.StateBuffer;
+import de.amr.yt.pacman.lib.TimingHistogram;
 import de.amr.yt.pacman.model.GameModel;
 import de.amr.yt.pacman.ui.GameUI;
 
@@ -33,12 +35,29 @@ import de.amr.yt.pacman.ui.GameUI;
  */
 public class GameController {
 
-	public final GameModel game = new GameModel();
+	private static final GameState[] STATES = GameState.values();
+
+	public final GameModel game;
 	public GameUI ui;
+	public Steering steering = Steering.NONE;
 	private GameState state;
+	private long stateTimer;
+
+	private final TimingHistogram inputTimes;
+	private final TimingHistogram stateUpdateTimes;
+	private final TimingHistogram uiUpdateTimes;
+	private final TimingHistogram captureTimes;
 
 	public GameController() {
-		GameState.setMaster(this);
+		this(new GameModel());
+	}
+
+	public GameController(GameModel game) {
+		this.game = game;
+		inputTimes = game.clock.profiler.phase("input");
+		stateUpdateTimes = game.clock.profiler.phase("state");
+		uiUpdateTimes = game.clock.profiler.phase("ui-update");
+		captureTimes = game.clock.profiler.phase("capture");
 		enterState(GameState.INTRO);
 	}
 
@@ -46,29 +65,89 @@ public class GameController {
 		return state;
 	}
 
+	/**
+	 * @return number of ticks since the current state has been entered
+	 */
+	public long stateTimer() {
+		return stateTimer;
+	}
+
 	public void enterState(GameState state) {
 		if (this.state != state) {
 			GameState prevState = this.state;
 			this.state = state;
-			state.timer = 0;
-			log("onEnter(%s)", state);
-			state.onEnter(game, ui);
-			log("Game changed from %s to %s", prevState, state);
+			stateTimer = 0;
+			debug("onEnter(%s)", state);
+			state.onEnter(this, game);
+			debug("Game changed from %s to %s", prevState, state);
 		}
 	}
 
+	/**
+	 * Updates the game state machine by a single tick. Does not touch the user interface, so this can also be used
+	 * without any UI.
+	 */
+	public void updateState() {
+		state.onUpdate(this, game);
+		++stateTimer;
+	}
+
+	/**
+	 * Saves the current state machine state and the complete game model state.
+	 * 
+	 * @param buffer buffer receiving the state
+	 */
+	public void saveState(StateBuffer buffer) {
+		game.saveState(buffer);
+		buffer.putEnum(state);
+		buffer.putLong(stateTimer);
+	}
+
+	/**
+	 * Restores the state saved by {@link #saveState(StateBuffer)}. The entry actions of the restored state are not
+	 * executed.
+	 * 
+	 * @param buffer buffer containing the state
+	 */
+	public void restoreState(StateBuffer buffer) {
+		game.restoreState(buffer);
+		state = buffer.getEnum(STATES);
+		stateTimer = buffer.getLong();
+	}
+
 	public void update() {
+		updateGame();
+		render();
+	}
+
+	/**
+	 * Processes the user input and, if the game is not paused, updates the state machine and the UI scene by one tick.
+	 */
+	public void updateGame() {
+		long t0 = System.nanoTime();
+		ui.processInput();
+		long t1 = System.nanoTime();
+		inputTimes.record(t1 - t0);
 		if (!game.paused) {
-			state.onUpdate(game, ui);
-			++state.timer;
+			updateState();
+			long t2 = System.nanoTime();
+			stateUpdateTimes.record(t2 - t1);
 			ui.update();
+			uiUpdateTimes.record(System.nanoTime() - t2);
 		}
+	}
+
+	/**
+	 * Hands the current game state to the renderer.
+	 */
+	public void render() {
+		long start = System.nanoTime();
 		ui.render();
+		captureTimes.record(System.nanoTime() - start);
 	}
 
 	public void step() {
-		state.onUpdate(game, ui);
-		++state.timer;
+		updateState();
 		ui.update();
 		ui.render();
 	}
@@ -23,15 +23,14 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.controller;
 
-import static de.amr.yt.pacman.lib.GameClock.sec;
-import static de.amr.yt.pacman.lib.Logging.log;
+import static de.amr.yt.pacman.lib.Logging.debug;
 
+import de.amr.yt.pacman.lib.Direction;
 import de.amr.yt.pacman.lib.Sounds;
 import de.amr.yt.pacman.model.GameModel;
 import de.amr.yt.pacman.model.Ghost;
 import de.amr.yt.pacman.model.GhostState;
 import de.amr.yt.pacman.model.PacMan;
-import de.amr.yt.pacman.ui.GameUI;
 
 /**
  * @author Armin Reichert
@@ -40,17 +39,17 @@ public enum GameState {
 
 	INTRO {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
+		public void onUpdate(GameController gameController, GameModel game) {
 		}
 	},
 
 	LEVEL_STARTING {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.attackTimer = 0;
 			game.levelStarted = false;
 			game.powerPelletsBlinking = false;
@@ -63,8 +62,9 @@ public enum GameState {
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
-			if (timer == sec(1)) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
+			if (timer == game.clock.sec(1)) {
 				gameController.enterState(GameState.READY);
 			}
 		}
@@ -72,18 +72,19 @@ public enum GameState {
 
 	READY {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.getReadyToRumble();
 			if (game.level.number == 1 && !game.levelStarted) {
 				Sounds.play("level_start");
 			}
-			log("onEnter(%s): Pac-Man animation is %s", this, game.pacMan.animations.selected());
+			debug("onEnter(%s): Pac-Man animation is %s", this, game.pacMan.animations.selected());
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
 			boolean playSound = game.level.number == 1 && !game.levelStarted;
-			if (timer == sec(playSound ? 5 : 1)) {
+			if (timer == game.clock.sec(playSound ? 5 : 1)) {
 				game.levelStarted = true;
 				gameController.enterState(GameState.PLAYING);
 			}
@@ -92,63 +93,32 @@ public enum GameState {
 
 	PLAYING {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.powerPelletsBlinking = true;
+			game.playingTimer = 0;
 			for (var ghost : game.ghosts) {
 				ghost.animations.selected().setEnabled(true);
 			}
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
+		public void onUpdate(GameController gameController, GameModel game) {
 			game.updateAttackWave();
-			ui.joystick.state().ifPresent(joystickState -> {
-				game.pacMan.wishDir = joystickState;
-			});
-			game.pacMan.update();
-			game.checkPelletEaten();
-			game.checkPowerPelletEaten();
-			game.checkBonusEaten();
-			if (game.checkAllPelletsEaten()) {
-				gameController.enterState(GameState.LEVEL_COMPLETE);
-				return;
-			}
-			if (game.checkPacManKilledByGhost(game.pacMan.tile())) {
-				gameController.enterState(GameState.PACMAN_DYING);
-				return;
-			}
-			if (game.checkGhostKilledByPacMan()) {
-				gameController.enterState(GameState.GHOST_DYING);
-				return;
+			Direction wishDir = gameController.steering.steer(game);
+			switch (game.updatePlaying(wishDir)) {
+			case ALL_PELLETS_EATEN -> gameController.enterState(GameState.LEVEL_COMPLETE);
+			case PACMAN_KILLED -> gameController.enterState(GameState.PACMAN_DYING);
+			case GHOST_KILLED -> gameController.enterState(GameState.GHOST_DYING);
+			default -> {
+				// keep playing
 			}
-			unlockGhosts(game.ghosts);
-			for (var ghost : game.ghosts) {
-				ghost.update();
-			}
-			game.updateBonus();
-		}
-
-		// TODO this is just some arbitrary sample logic, the real game uses dot counters and stuff
-		private void unlockGhosts(Ghost[] ghosts) {
-			for (var ghost : ghosts) {
-				int unlockSeconds = switch (ghost.id) {
-				case Ghost.BLINKY -> 0;
-				case Ghost.PINKY -> 1;
-				case Ghost.INKY -> 5;
-				case Ghost.CLYDE -> 15;
-				default -> 0;
-				};
-				if (ghost.state == GhostState.LOCKED && timer >= sec(unlockSeconds)) {
-					ghost.state = ghost.id == Ghost.BLINKY ? GhostState.SCATTERING : GhostState.LEAVING_HOUSE;
-				}
 			}
 		}
-
 	},
 
 	LEVEL_COMPLETE {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.pacMan.selectAnimation(PacMan.AnimationKey.STANDING);
 			for (var ghost : game.ghosts) {
 				ghost.animations.selected().setEnabled(false);
@@ -156,13 +126,14 @@ public enum GameState {
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
-			if (timer == sec(1)) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
+			if (timer == game.clock.sec(1)) {
 				for (var ghost : game.ghosts) {
 					ghost.visible = false;
 				}
 				game.mazeFlashing = true;
-			} else if (timer == sec(3)) {
+			} else if (timer == game.clock.sec(3)) {
 				game.mazeFlashing = false;
 				game.setLevel(game.level.number + 1);
 				game.pacMan.visible = false;
@@ -174,7 +145,7 @@ public enum GameState {
 
 	GAME_OVER {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.powerPelletsBlinking = false;
 			for (var ghost : game.ghosts) {
 				ghost.animations.selected().setEnabled(false);
@@ -183,8 +154,9 @@ public enum GameState {
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
-			if (timer == sec(5)) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
+			if (timer == game.clock.sec(5)) {
 				game.reset();
 				gameController.enterState(INTRO);
 			}
@@ -193,7 +165,7 @@ public enum GameState {
 
 	PACMAN_DYING {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.attackTimer = 0;
 			game.pacMan.selectAnimation(PacMan.AnimationKey.DYING);
 			game.pacMan.animations.selected().setEnabled(false);
@@ -201,15 +173,16 @@ public enum GameState {
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
-			if (timer == sec(1)) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
+			if (timer == game.clock.sec(1)) {
 				for (var ghost : game.ghosts) {
 					ghost.visible = false;
 				}
-			} else if (timer == sec(2)) {
+			} else if (timer == game.clock.sec(2)) {
 				game.pacMan.animations.selected().setEnabled(true);
 				Sounds.play("pacman_death");
-			} else if (timer == sec(4)) {
+			} else if (timer == game.clock.sec(4)) {
 				--game.lives;
 				if (game.lives > 0) {
 					gameController.enterState(GameState.READY);
@@ -228,39 +201,23 @@ public enum GameState {
 
 	GHOST_DYING {
 		@Override
-		public void onEnter(GameModel game, GameUI ui) {
+		public void onEnter(GameController gameController, GameModel game) {
 			game.pacMan.visible = false;
 		}
 
 		@Override
-		public void onUpdate(GameModel game, GameUI ui) {
-			if (timer == sec(1)) {
+		public void onUpdate(GameController gameController, GameModel game) {
+			long timer = gameController.stateTimer();
+			if (timer == game.clock.sec(1)) {
 				game.pacMan.visible = true;
 				gameController.enterState(GameState.PLAYING);
 				return;
 			}
-			for (var ghost : game.ghosts) {
-				if (ghost.state == GhostState.EATEN) {
-					ghost.update();
-				}
-			}
+			game.updateEatenGhosts();
 		}
 	};
 
-	public static void setMaster(GameController master) {
-		for (var state : values()) {
-			state.gameController = master;
-		}
-	}
-
-	protected GameController gameController;
-	protected long timer;
-
-	public long timer() {
-		return timer;
-	}
-
-	public abstract void onEnter(GameModel game, GameUI ui);
+	public abstract void onEnter(GameController gameController, GameModel game);
 
-	public abstract void onUpdate(GameModel game, GameUI ui);
+	public abstract void onUpdate(GameController gameController, GameModel game);
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import static de.amr.yt.pacman.lib.Logging.debug;
+import static de.amr.yt.pacman.lib.Logging.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * Runs the game state machine and model without any user interface and without sound. The simulation is not paced
+ * by the game clock but runs as fast as the CPU allows.
+ * <p>
+ * Each runner owns its game controller, model and clock, so any number of runners can be used in parallel.
+ * 
+ * @author Armin Reichert
+ */
+public class HeadlessRunner {
+
+	/** Maximum number of seconds a single game may last. */
+	public static final int MAX_GAME_SECONDS = 3600;
+
+	/**
+	 * Runs a number of independent games headless using a pool of worker threads and reports the sustained simulation
+	 * speed.
+	 * <p>
+	 * With arguments <code>-replay file</code>, the recorded game is re-simulated instead. With option
+	 * <code>-bot name</code>, Pac-Man is steered by the given bot (see {@link Steering#BOT_NAMES}) and the scores and
+	 * levels reached are reported too. With option <code>-homeflow</code>, eaten ghosts return home on a shortest path
+	 * (see {@link GameModel#shortestPathHome}). Options may appear anywhere in the argument list.
+	 * 
+	 * @param args optional number of games (default: 1), number of worker threads (default: number of processors) and
+	 *             random seed (default: random). Games are numbered from 1 like in the log, game <code>n</code> and its
+	 *             bot use seed <code>seed + n</code>.
+	 */
+	public static void main(String[] args) {
+		if (args.length > 1 && args[0].equals("-replay")) {
+			replayFile(new File(args[1]));
+			return;
+		}
+		boolean shortestPathHome = false;
+		String botName = null;
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < args.length; ++i) {
+			if (args[i].equals("-homeflow")) {
+				shortestPathHome = true;
+			} else if (args[i].equals("-bot") && i + 1 < args.length) {
+				botName = args[++i];
+				if (!Steering.BOT_NAMES.contains(botName)) {
+					throw new IllegalArgumentException(
+							"Unknown bot '%s', available bots: %s".formatted(botName, Steering.BOT_NAMES));
+				}
+			} else {
+				values.add(args[i]);
+			}
+		}
+		int numGames = values.size() > 0 ? Integer.parseInt(values.get(0)) : 1;
+		int numThreads = values.size() > 1 ? Integer.parseInt(values.get(1)) : Runtime.getRuntime().availableProcessors();
+		long seed = values.size() > 2 ? Long.parseLong(values.get(2)) : System.nanoTime();
+		Sounds.setEnabled(false);
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		List<Future<HeadlessRunner>> runners = new ArrayList<>();
+		long start = System.nanoTime();
+		String bot = botName;
+		boolean homeFlow = shortestPathHome;
+		for (int i = 0; i < numGames; ++i) {
+			int gameNumber = i + 1;
+			runners.add(pool.submit(() -> {
+				GameModel game = new GameModel(new GameClock(), seed + gameNumber);
+				game.shortestPathHome = homeFlow;
+				HeadlessRunner runner = new HeadlessRunner(new GameController(game));
+				if (bot != null) {
+					runner.gameController.steering = Steering.bot(bot, seed + gameNumber);
+				}
+				long ticks = runner.playGame();
+				debug("Game %d finished after %d ticks, score: %d, level: %d", gameNumber, ticks, game.score,
+						game.level.number);
+				return runner;
+			}));
+		}
+		long totalTicks = 0;
+		long totalScore = 0, maxScore = 0, totalLevels = 0, maxLevel = 0;
+		int completed = 0, failed = 0;
+		try {
+			for (int i = 0; i < numGames; ++i) {
+				try {
+					HeadlessRunner runner = runners.get(i).get();
+					GameModel game = runner.gameController.game;
+					totalTicks += runner.totalTicks();
+					totalScore += game.score;
+					maxScore = Math.max(maxScore, game.score);
+					totalLevels += game.level.number;
+					maxLevel = Math.max(maxLevel, game.level.number);
+					++completed;
+				} catch (ExecutionException x) {
+					++failed;
+					log("Game %d failed: %s", i + 1, x.getCause());
+				}
+			}
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+			log("Interrupted, %d games not evaluated", numGames - completed - failed);
+			pool.shutdownNow();
+		} finally {
+			pool.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		log("%d games on %d threads (seed %d): %d ticks in %.3f seconds (%.0f ticks/sec, %.0f games/sec)", completed,
+				numThreads, seed, totalTicks, seconds, totalTicks / seconds, completed / seconds);
+		if (failed > 0) {
+			log("%d of %d games failed and are not included in the results", failed, numGames);
+		}
+		if (bot != null && completed > 0) {
+			log("Bot '%s': score avg %.0f max %d, level avg %.2f max %d", bot, (double) totalScore / completed, maxScore,
+					(double) totalLevels / completed, maxLevel);
+		}
+	}
+
+	private static void replayFile(File file) {
+		try {
+			InputRecording recording = InputRecording.read(file);
+			Sounds.setEnabled(false);
+			HeadlessRunner runner = new HeadlessRunner(new GameController());
+			long ticks = runner.replay(recording);
+			log("Replayed '%s' (%d input runs, %d input ticks): %d ticks in %.3f ms, score: %d", file, recording.numRuns(),
+					recording.numTicks(), ticks, runner.totalNanos / 1e6, runner.gameController.game.score);
+		} catch (IOException x) {
+			log("Could not replay '%s': %s", file, x.getMessage());
+		}
+	}
+
+	private final GameController gameController;
+	private long totalTicks;
+	private long totalNanos;
+
+	public HeadlessRunner(GameController gameController) {
+		this.gameController = gameController;
+	}
+
+	public GameController gameController() {
+		return gameController;
+	}
+
+	/**
+	 * Plays a new game until it is over or {@link #MAX_GAME_SECONDS} of game time have been simulated.
+	 * 
+	 * @return number of simulated ticks
+	 */
+	public long playGame() {
+		return playGame(gameController.game.clock.sec(MAX_GAME_SECONDS));
+	}
+
+	/**
+	 * Plays a new game until it is over or the given number of ticks has been simulated.
+	 * 
+	 * @param maxTicks maximum number of ticks to simulate
+	 * @return number of simulated ticks
+	 */
+	public long playGame(long maxTicks) {
+		return playGame(1, maxTicks);
+	}
+
+	/**
+	 * Plays a new game starting at the given level until it is over or the given number of ticks has been simulated.
+	 * 
+	 * @param levelNumber number of start level
+	 * @param maxTicks    maximum number of ticks to simulate
+	 * @return number of simulated ticks
+	 */
+	public long playGame(int levelNumber, long maxTicks) {
+		gameController.game.reset();
+		if (levelNumber != 1) {
+			gameController.game.setLevel(levelNumber);
+		}
+		gameController.enterState(GameState.LEVEL_STARTING);
+		long ticks = 0;
+		long start = System.nanoTime();
+		while (gameController.state() != GameState.GAME_OVER && ticks < maxTicks) {
+			gameController.updateState();
+			++ticks;
+		}
+		totalNanos += System.nanoTime() - start;
+		totalTicks += ticks;
+		return ticks;
+	}
+
+	/**
+	 * Re-simulates the recorded game until it is over.
+	 * 
+	 * @param recording input recording
+	 * @return number of simulated ticks
+	 */
+	public long replay(InputRecording recording) {
+		gameController.game.setSeed(recording.seed);
+		gameController.game.shortestPathHome = recording.shortestPathHome;
+		gameController.steering = recording.player();
+		return playGame(recording.levelNumber, gameController.game.clock.sec(MAX_GAME_SECONDS));
+	}
+
+	public long totalTicks() {
+		return totalTicks;
+	}
+
+	/**
+	 * @return sustained number of simulated ticks per second over all games played by this runner
+	 */
+	public double ticksPerSecond() {
+		return totalNanos == 0 ? 0 : totalTicks * 1e9 / totalNanos;
+	}
+}
@@ -0,0 +1,245 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * Run-length encoded recording of the directions requested by the Pac-Man steering in every tick of state
+ * {@link GameState#PLAYING}, together with the "Pac-Man safe" cheat ({@link GameModel#pacSafe}) in effect in that tick.
+ * Together with the random seed, the start level and the game options, this is sufficient to re-simulate a complete
+ * game.
+ * <p>
+ * File format (big endian): magic number, version byte, seed (long), start level (int), shortest path home option
+ * (boolean, since version 3), number of runs (int), then
+ * for each run a variable-length integer <code>(length &lt;&lt; 4) | code</code>. The lower 3 bits of the code are the
+ * ordinal of the requested direction or 4 if no direction was requested, bit 3 is set if Pac-Man was safe. Version 1
+ * files have no safe bit and store <code>(length &lt;&lt; 3) | direction</code>.
+ * 
+ * @author Armin Reichert
+ */
+public class InputRecording {
+
+	private static final int MAGIC = 0x50414352; // "PACR"
+	private static final int VERSION = 3;
+	private static final int NO_DIRECTION = 4;
+	private static final int SAFE = 8;
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	public final long seed;
+	public final int levelNumber;
+	public final boolean shortestPathHome;
+
+	private byte[] runDirections = new byte[64];
+	private int[] runLengths = new int[64];
+	private int numRuns;
+	private long numTicks;
+	private boolean finished;
+
+	/**
+	 * @param seed        random seed of the recorded game
+	 * @param levelNumber number of the level where the recorded game starts
+	 */
+	public InputRecording(long seed, int levelNumber) {
+		this(seed, levelNumber, false);
+	}
+
+	/**
+	 * @param seed             random seed of the recorded game
+	 * @param levelNumber      number of the level where the recorded game starts
+	 * @param shortestPathHome value of option {@link GameModel#shortestPathHome} in the recorded game
+	 */
+	public InputRecording(long seed, int levelNumber, boolean shortestPathHome) {
+		this.seed = seed;
+		this.levelNumber = levelNumber;
+		this.shortestPathHome = shortestPathHome;
+	}
+
+	public int numRuns() {
+		return numRuns;
+	}
+
+	public long numTicks() {
+		return numTicks;
+	}
+
+	/**
+	 * Ends the recording. Input provided to a {@link #recorder(Steering) recorder} afterwards is not recorded anymore.
+	 */
+	public void finish() {
+		finished = true;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Appends the input of the next tick.
+	 * 
+	 * @param dir requested direction or <code>null</code>
+	 */
+	public void append(Direction dir) {
+		append(dir, false);
+	}
+
+	/**
+	 * Appends the input of the next tick.
+	 * 
+	 * @param dir     requested direction or <code>null</code>
+	 * @param pacSafe if Pac-Man cannot be killed in this tick
+	 */
+	public void append(Direction dir, boolean pacSafe) {
+		int code = dir != null ? dir.ordinal() : NO_DIRECTION;
+		appendRun((byte) (pacSafe ? code | SAFE : code), 1);
+	}
+
+	private void appendRun(byte code, int length) {
+		if (numRuns > 0 && runDirections[numRuns - 1] == code) {
+			runLengths[numRuns - 1] += length;
+		} else {
+			if (numRuns == runLengths.length) {
+				runDirections = Arrays.copyOf(runDirections, 2 * numRuns);
+				runLengths = Arrays.copyOf(runLengths, 2 * numRuns);
+			}
+			runDirections[numRuns] = code;
+			runLengths[numRuns] = length;
+			++numRuns;
+		}
+		numTicks += length;
+	}
+
+	/**
+	 * @param source steering providing the input
+	 * @return steering that records all input provided by the source into this recording until the recording is
+	 *         {@link #finish() finished}
+	 */
+	public Steering recorder(Steering source) {
+		return game -> {
+			Direction dir = source.steer(game);
+			if (!finished) {
+				append(dir, game.pacSafe);
+			}
+			return dir;
+		};
+	}
+
+	/**
+	 * @return new steering that plays back this recording from the start, including the state of the "Pac-Man safe"
+	 *         cheat. After the end of the recording, no more directions are requested.
+	 */
+	public Steering player() {
+		return new Steering() {
+			private int run;
+			private int tick;
+
+			@Override
+			public Direction steer(GameModel game) {
+				if (run == numRuns) {
+					return null;
+				}
+				int code = runDirections[run];
+				if (++tick == runLengths[run]) {
+					++run;
+					tick = 0;
+				}
+				game.pacSafe = (code & SAFE) != 0;
+				code &= ~SAFE;
+				return code == NO_DIRECTION ? null : DIRECTIONS[code];
+			}
+		};
+	}
+
+	public void write(File file) throws IOException {
+		try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(seed);
+			out.writeInt(levelNumber);
+			out.writeBoolean(shortestPathHome);
+			out.writeInt(numRuns);
+			for (int i = 0; i < numRuns; ++i) {
+				writeVarInt(out, ((long) runLengths[i] << 4) | runDirections[i]);
+			}
+		}
+	}
+
+	public static InputRecording read(File file) throws IOException {
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("File '%s' is not an input recording".formatted(file));
+			}
+			int version = in.readByte();
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Unsupported input recording version %d".formatted(version));
+			}
+			int codeBits = version == 1 ? 3 : 4;
+			long seed = in.readLong();
+			int levelNumber = in.readInt();
+			var recording = new InputRecording(seed, levelNumber, version >= 3 && in.readBoolean());
+			int numRuns = in.readInt();
+			for (int i = 0; i < numRuns; ++i) {
+				long value = readVarInt(in);
+				int code = (int) (value & ((1 << codeBits) - 1));
+				long length = value >>> codeBits;
+				if ((code & ~SAFE) > NO_DIRECTION || length == 0 || length > Integer.MAX_VALUE) {
+					throw new IOException("Invalid run (direction=%d, length=%d) in input recording".formatted(code, length));
+				}
+				recording.appendRun((byte) code, (int) length);
+			}
+			return recording;
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarInt(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer in input recording");
+	}
+}
@@ -0,0 +1,310 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.StateBuffer;
+import de.amr.yt.pacman.lib.XorShiftRandom;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.PacMan;
+import de.amr.yt.pacman.model.PlayingEvent;
+import de.amr.yt.pacman.model.World;
+
+/**
+ * Autopilot using Monte Carlo tree search.
+ * <p>
+ * When Pac-Man enters a waypoint tile, the game state is saved and each possible direction is evaluated by rollouts:
+ * the saved state is restored into a private game model, the direction is taken and the real model logic is run for
+ * {@link #ROLLOUT_TICKS} ticks with a randomized default policy. Directions are selected by the UCB1 rule. The search
+ * is root-parallel: every worker searches independently on its own model and the visit counts are summed up when the
+ * time budget is used up. The workers of all bots run in one shared fork-join pool, so any number of bots (for example
+ * one per game of a bulk evaluation) together use at most all but one processor. Rollouts restore and simulate the
+ * models in place, so they create no garbage.
+ * 
+ * @author Armin Reichert
+ */
+public class MctsBot implements Steering {
+
+	/** Default search time per decision in milliseconds. */
+	public static final int DEFAULT_BUDGET_MILLIS = 8;
+
+	/** Number of ticks simulated by a rollout. */
+	public static final int ROLLOUT_TICKS = 120;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final double EXPLORATION = 0.7;
+	private static final double SCORE_SCALE = 600;
+
+	/** Pool running the search workers of all bots. Its threads are daemon threads created on demand. */
+	private static final ForkJoinPool POOL = new ForkJoinPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+	@SuppressWarnings("serial")
+	private class Worker extends RecursiveAction {
+
+		final GameModel model;
+		final StateBuffer state = new StateBuffer();
+		final XorShiftRandom random;
+		final int[] visits = new int[4];
+		final double[] rewards = new double[4];
+
+		Worker(long seed) {
+			model = new GameModel(new GameClock(), seed);
+			random = new XorShiftRandom(seed);
+		}
+
+		@Override
+		protected void compute() {
+			Arrays.fill(visits, 0);
+			Arrays.fill(rewards, 0);
+			state.copyFrom(rootState);
+			for (int n = 0; n < maxRollouts || maxRollouts == 0; ++n) {
+				if (System.nanoTime() - searchStart >= budgetNanos) {
+					break;
+				}
+				int action = select(n);
+				rewards[action] += rollout(DIRECTIONS[action]);
+				++visits[action];
+			}
+		}
+
+		private int select(int n) {
+			int best = -1;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			for (int a = 0; a < 4; ++a) {
+				if ((rootMoves & (1 << a)) == 0) {
+					continue;
+				}
+				if (visits[a] == 0) {
+					return a;
+				}
+				double value = rewards[a] / visits[a] + EXPLORATION * Math.sqrt(Math.log(n) / visits[a]);
+				if (value > bestValue) {
+					best = a;
+					bestValue = value;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * @return reward in [0, 1]: 1 if the level gets completed, below 0.25 if Pac-Man gets killed, otherwise depending
+		 *         on the points scored
+		 */
+		private double rollout(Direction action) {
+			model.restoreState(state);
+			PacMan pacMan = model.pacMan;
+			int startScore = model.score;
+			int lastTile = World.tileIndex(pacMan.row(), pacMan.col());
+			Direction wishDir = action;
+			for (int t = 0; t < ROLLOUT_TICKS; ++t) {
+				model.updateAttackWave();
+				PlayingEvent event = model.updatePlaying(wishDir);
+				if (event == PlayingEvent.PACMAN_KILLED) {
+					return 0.25 * t / ROLLOUT_TICKS;
+				}
+				if (event == PlayingEvent.ALL_PELLETS_EATEN) {
+					return 1;
+				}
+				if (event == PlayingEvent.GHOST_KILLED) {
+					// game freezes for a second, then state PLAYING is entered again
+					for (long freeze = model.clock.sec(1); freeze > 1; --freeze) {
+						model.updateEatenGhosts();
+					}
+					model.playingTimer = 0;
+					t += model.clock.sec(1);
+				}
+				wishDir = null;
+				int tile = World.tileIndex(pacMan.row(), pacMan.col());
+				if (tile != lastTile || pacMan.stuck) {
+					lastTile = tile;
+					wishDir = defaultPolicy(model);
+				}
+			}
+			return 0.5 + 0.5 * Math.min(1, (model.score - startScore) / SCORE_SCALE);
+		}
+
+		/**
+		 * @return random direction not reversing Pac-Man, with a preference for tiles with food
+		 */
+		private Direction defaultPolicy(GameModel game) {
+			PacMan pacMan = game.pacMan;
+			int row = pacMan.row(), col = pacMan.col();
+			int moves = forwardMoves(game);
+			if (moves == 0) {
+				return null;
+			}
+			int food = 0;
+			for (Direction dir : DIRECTIONS) {
+				if ((moves & World.dirBit(dir)) != 0
+						&& game.world.hasUneatenPelletAt(row + dir.vector.y, col + dir.vector.x)) {
+					food |= World.dirBit(dir);
+				}
+			}
+			if (food != 0 && random.nextInt(4) != 0) {
+				moves = food;
+			}
+			return randomDirection(moves, random);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private class Search extends RecursiveAction {
+
+		@Override
+		protected void compute() {
+			for (Worker worker : workers) {
+				worker.reinitialize();
+			}
+			ForkJoinTask.invokeAll(workers);
+		}
+	}
+
+	/**
+	 * @return the directions in which Pac-Man can move without reversing, or the reverse direction in a dead end
+	 */
+	private static int forwardMoves(GameModel game) {
+		PacMan pacMan = game.pacMan;
+		int moves = game.world.moves(pacMan.row(), pacMan.col(), World.PAC_MAN);
+		int forward = moves & ~World.dirBit(pacMan.moveDir.opposite());
+		return forward != 0 ? forward : moves;
+	}
+
+	private static Direction randomDirection(int moves, XorShiftRandom random) {
+		int choice = random.nextInt(Integer.bitCount(moves));
+		for (Direction dir : DIRECTIONS) {
+			if ((moves & World.dirBit(dir)) != 0 && choice-- == 0) {
+				return dir;
+			}
+		}
+		return null;
+	}
+
+	private final Worker[] workers;
+	private final Search search = new Search();
+	private final StateBuffer rootState = new StateBuffer();
+	private final long budgetNanos;
+	private final int maxRollouts;
+	private volatile long searchStart;
+	private volatile int rootMoves;
+	private int lastTileIndex = -1;
+	private long decisions;
+	private long rollouts;
+
+	/**
+	 * @param seed        random seed of the rollout policies
+	 * @param budgetNanos search time per decision
+	 * @param maxRollouts maximum number of rollouts per worker and decision, 0 means no limit. With a limit that is
+	 *                    reached within the time budget, the bot plays deterministically.
+	 * @param parallelism number of search workers
+	 */
+	public MctsBot(long seed, long budgetNanos, int maxRollouts, int parallelism) {
+		this.budgetNanos = budgetNanos;
+		this.maxRollouts = maxRollouts;
+		workers = new Worker[parallelism];
+		for (int i = 0; i < parallelism; ++i) {
+			workers[i] = new Worker(seed + i);
+		}
+	}
+
+	/**
+	 * Creates a bot searching the given time per decision with one worker per pool thread.
+	 * 
+	 * @param seed         random seed of the rollout policies
+	 * @param budgetMillis search time per decision in milliseconds
+	 */
+	public MctsBot(long seed, int budgetMillis) {
+		this(seed, budgetMillis * 1_000_000L, 0, POOL.getParallelism());
+	}
+
+	/**
+	 * Creates a bot searching {@link #DEFAULT_BUDGET_MILLIS} per decision.
+	 * 
+	 * @param seed random seed of the rollout policies
+	 */
+	public MctsBot(long seed) {
+		this(seed, DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * @return average number of rollouts per decision (over all workers)
+	 */
+	public double rolloutsPerDecision() {
+		return decisions == 0 ? 0 : (double) rollouts / decisions;
+	}
+
+	@Override
+	public Direction steer(GameModel game) {
+		PacMan pacMan = game.pacMan;
+		int row = pacMan.row(), col = pacMan.col();
+		int tileIndex = World.tileIndex(row, col);
+		if (tileIndex == lastTileIndex && !pacMan.stuck) {
+			return null;
+		}
+		lastTileIndex = tileIndex;
+		if (!game.world.isWaypoint(row, col)) {
+			// follow the corridor around corners
+			int forward = forwardMoves(game);
+			return (forward & World.dirBit(pacMan.moveDir)) != 0 ? null
+					: DIRECTIONS[Integer.numberOfTrailingZeros(forward)];
+		}
+		return search(game);
+	}
+
+	private Direction search(GameModel game) {
+		game.saveState(rootState);
+		rootMoves = game.world.moves(game.pacMan.row(), game.pacMan.col(), World.PAC_MAN);
+		if (rootMoves == 0) {
+			return null;
+		}
+		searchStart = System.nanoTime();
+		search.reinitialize();
+		POOL.invoke(search);
+		int best = -1;
+		long bestVisits = -1;
+		double bestReward = 0;
+		for (int a = 0; a < 4; ++a) {
+			long visits = 0;
+			double reward = 0;
+			for (Worker worker : workers) {
+				visits += worker.visits[a];
+				reward += worker.rewards[a];
+			}
+			rollouts += visits;
+			if (visits > bestVisits || visits == bestVisits && reward > bestReward) {
+				best = a;
+				bestVisits = visits;
+				bestReward = reward;
+			}
+		}
+		++decisions;
+		return bestVisits > 0 ? DIRECTIONS[best] : null;
+	}
+}
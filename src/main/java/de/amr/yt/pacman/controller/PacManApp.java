@@ -23,10 +23,22 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.controller;
 
+import static de.amr.yt.pacman.lib.Logging.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
 import javax.swing.SwingUtilities;
 
 import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.StartupTimeline;
 import de.amr.yt.pacman.ui.GameUI;
+import de.amr.yt.pacman.ui.animation.AnimationSprites;
+import de.amr.yt.pacman.ui.render.Renderer;
 import de.amr.yt.pacman.ui.render.Sprites;
 
 /**
@@ -35,12 +47,132 @@ import de.amr.yt.pacman.ui.render.Sprites;
 public class PacManApp {
 
 	public static void main(String[] args) {
-		Sprites.load();
-		double canvasScaling = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+		StartupTimeline.mark("main");
+		if (args.length > 0 && args[0].equals("-headless")) {
+			HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		double scaling = 2.0;
+		File file = null;
+		File timings = null;
+		String botName = null;
+		boolean shortestPathHome = false;
+		int budgetMillis = MctsBot.DEFAULT_BUDGET_MILLIS;
+		boolean active = true;
+		GameClock.Mode clockMode = GameClock.Mode.PRECISE;
+		for (int i = 0; i < args.length; ++i) {
+			if (args[i].equals("-record") && i + 1 < args.length) {
+				file = new File(args[++i]);
+			} else if (args[i].equals("-noaccel")) {
+				Sprites.accelerated = false;
+			} else if (args[i].equals("-repaint")) {
+				active = false;
+			} else if (args[i].equals("-sleepclock")) {
+				clockMode = GameClock.Mode.SLEEP;
+			} else if (args[i].equals("-bot") && i + 1 < args.length) {
+				botName = args[++i];
+			} else if (args[i].equals("-homeflow")) {
+				shortestPathHome = true;
+			} else if (args[i].equals("-budget") && i + 1 < args.length) {
+				budgetMillis = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-audiobuffer") && i + 1 < args.length) {
+				Sounds.bufferMillis = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-timings") && i + 1 < args.length) {
+				timings = new File(args[++i]);
+			} else {
+				scaling = Double.parseDouble(args[i]);
+			}
+		}
+		CompletableFuture<Void> assetsLoaded = loadAssets();
+		double canvasScaling = scaling;
+		boolean activeRendering = active;
+		File recordingFile = file;
+		Steering bot = botName != null ? Steering.bot(botName, System.nanoTime(), budgetMillis) : null;
+		long start = System.nanoTime();
 		GameController controller = new GameController();
+		StartupTimeline.record("game model", start, System.nanoTime());
+		controller.game.clock.setMode(clockMode);
+		controller.game.shortestPathHome = shortestPathHome;
+		if (timings != null) {
+			dumpTimingsOnExit(controller, timings);
+		}
 		SwingUtilities.invokeLater(() -> {
-			controller.ui = new GameUI(controller, canvasScaling);
-			GameClock.get().start(controller::update);
+			controller.ui = new GameUI(controller, canvasScaling, activeRendering, assetsLoaded);
+			controller.ui.ready.thenRun(() -> {
+				controller.steering = bot != null ? bot : controller.ui.joystick;
+				Runnable update = recordingFile != null ? record(controller, recordingFile) : controller::updateGame;
+				controller.game.clock.start(update, controller::render);
+			}).exceptionally(x -> {
+				x.printStackTrace();
+				System.exit(1);
+				return null;
+			});
 		});
 	}
+
+	/**
+	 * Loads sprites, font and sounds in parallel, the animation sprite tables when the sprites are available.
+	 * 
+	 * @return future completing when all assets are loaded
+	 */
+	private static CompletableFuture<Void> loadAssets() {
+		var sprites = CompletableFuture.runAsync(StartupTimeline.timed("sprites", Sprites::load));
+		var animations = sprites.thenRunAsync(StartupTimeline.timed("animations", AnimationSprites::load));
+		var font = CompletableFuture
+				.runAsync(StartupTimeline.timed("font", () -> Objects.requireNonNull(Renderer.ARCADE_FONT)));
+		var sounds = CompletableFuture.runAsync(StartupTimeline.timed("sounds", Sounds::load));
+		return CompletableFuture.allOf(animations, font, sounds);
+	}
+
+	private static void dumpTimingsOnExit(GameController controller, File file) {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				controller.game.clock.profiler.dump(file);
+				log("Tick timings saved to '%s'", file);
+			} catch (IOException x) {
+				log("Could not save tick timings to '%s': %s", file, x.getMessage());
+			}
+		}));
+	}
+
+	/**
+	 * Records the joystick input of the first game played. The recording ends when this game is over or quit, because
+	 * later games continue the random sequence of the first one and could not be re-simulated from the seed. The
+	 * recording is saved when the application exits.
+	 * 
+	 * @return game update that finishes the recording when the first game has ended
+	 */
+	private static Runnable record(GameController controller, File file) {
+		var recording = new InputRecording(controller.game.seed(), controller.game.level.number,
+				controller.game.shortestPathHome);
+		controller.steering = recording.recorder(controller.steering);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				recording.write(file);
+				log("Input recording saved to '%s' (%d runs, %d ticks)", file, recording.numRuns(), recording.numTicks());
+			} catch (IOException x) {
+				log("Could not save input recording to '%s': %s", file, x.getMessage());
+			}
+		}));
+		log("Recording input to '%s'", file);
+		return new Runnable() {
+			private boolean gameStarted;
+
+			@Override
+			public void run() {
+				controller.updateGame();
+				if (recording.isFinished()) {
+					return;
+				}
+				GameState state = controller.state();
+				if (state != GameState.INTRO && state != GameState.GAME_OVER) {
+					gameStarted = true;
+				} else if (gameStarted) {
+					recording.finish();
+					log("First game ended, input recording finished (%d runs, %d ticks)", recording.numRuns(),
+							recording.numTicks());
+				}
+			}
+		};
+	}
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.model.GhostState;
+import de.amr.yt.pacman.model.PacMan;
+import de.amr.yt.pacman.model.World;
+
+/**
+ * Greedy bot heading for the nearest food (or frightened ghost) on a path that avoids the tiles around dangerous
+ * ghosts. Whenever Pac-Man enters a new tile, a breadth-first search over the maze is run using preallocated arrays,
+ * so steering does not allocate.
+ * 
+ * @author Armin Reichert
+ */
+public class PelletBot implements Steering {
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final int NUM_TILES = World.ROWS * World.COLS;
+
+	private final int[] queue = new int[NUM_TILES];
+	private final int[] visited = new int[NUM_TILES]; // search number of the last visit
+	private final int[] danger = new int[NUM_TILES]; // search number in which the tile was marked as dangerous
+	private final byte[] firstDir = new byte[NUM_TILES];
+	private int searchNumber;
+	private int lastTileIndex = -1;
+
+	@Override
+	public Direction steer(GameModel game) {
+		PacMan pacMan = game.pacMan;
+		int start = World.tileIndex(pacMan.row(), pacMan.col());
+		if (start == lastTileIndex && !pacMan.stuck) {
+			return null;
+		}
+		lastTileIndex = start;
+		++searchNumber;
+		markDangerousTiles(game);
+		Direction dir = search(game, start);
+		return dir != null ? dir : escape(game, start);
+	}
+
+	private void markDangerousTiles(GameModel game) {
+		for (Ghost ghost : game.ghosts) {
+			if (ghost.state == GhostState.CHASING || ghost.state == GhostState.SCATTERING) {
+				int row = ghost.row(), col = ghost.col();
+				markDangerous(row, col);
+				for (Direction dir : DIRECTIONS) {
+					markDangerous(row + dir.vector.y, col + dir.vector.x);
+				}
+			}
+		}
+	}
+
+	private void markDangerous(int row, int col) {
+		if (row >= 0 && row < World.ROWS) {
+			danger[World.tileIndex(row, wrap(col))] = searchNumber;
+		}
+	}
+
+	private static int wrap(int col) {
+		return (col + World.COLS) % World.COLS;
+	}
+
+	/**
+	 * @return first direction on the shortest safe path to the nearest target tile or <code>null</code> if there is none
+	 */
+	private Direction search(GameModel game, int start) {
+		World world = game.world;
+		int head = 0, tail = 0;
+		queue[tail++] = start;
+		visited[start] = searchNumber;
+		while (head < tail) {
+			int tile = queue[head++];
+			int row = World.indexRow(tile), col = World.indexCol(tile);
+			if (tile != start && isTarget(game, row, col)) {
+				return DIRECTIONS[firstDir[tile]];
+			}
+			int moves = world.moves(row, col, World.PAC_MAN);
+			for (Direction dir : DIRECTIONS) {
+				if ((moves & World.dirBit(dir)) == 0) {
+					continue;
+				}
+				int neighborRow = row + dir.vector.y;
+				if (neighborRow < 0 || neighborRow >= World.ROWS) {
+					continue;
+				}
+				int neighbor = World.tileIndex(neighborRow, wrap(col + dir.vector.x));
+				if (visited[neighbor] == searchNumber || danger[neighbor] == searchNumber) {
+					continue;
+				}
+				visited[neighbor] = searchNumber;
+				firstDir[neighbor] = (byte) (tile == start ? dir.ordinal() : firstDir[tile]);
+				queue[tail++] = neighbor;
+			}
+		}
+		return null;
+	}
+
+	private boolean isTarget(GameModel game, int row, int col) {
+		if (game.world.hasUneatenPelletAt(row, col) || game.world.hasUneatenPowerPelletAt(row, col)) {
+			return true;
+		}
+		for (Ghost ghost : game.ghosts) {
+			if (ghost.state == GhostState.FRIGHTENED && ghost.row() == row && ghost.col() == col) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a direction leading to a tile not next to a dangerous ghost, preferring to keep the current direction
+	 */
+	private Direction escape(GameModel game, int start) {
+		PacMan pacMan = game.pacMan;
+		int row = World.indexRow(start), col = World.indexCol(start);
+		int moves = game.world.moves(row, col, World.PAC_MAN);
+		Direction fallback = null;
+		for (Direction dir : DIRECTIONS) {
+			if ((moves & World.dirBit(dir)) == 0) {
+				continue;
+			}
+			int neighborRow = row + dir.vector.y;
+			boolean safe = neighborRow >= 0 && neighborRow < World.ROWS
+					&& danger[World.tileIndex(neighborRow, wrap(col + dir.vector.x))] != searchNumber;
+			if (safe && (dir == pacMan.moveDir || fallback == null)) {
+				fallback = dir;
+			}
+		}
+		return fallback;
+	}
+}
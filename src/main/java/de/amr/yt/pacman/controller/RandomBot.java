@@ -0,0 +1,73 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.XorShiftRandom;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.PacMan;
+import de.amr.yt.pacman.model.World;
+
+/**
+ * Bot choosing a random direction whenever Pac-Man enters a new tile or gets stuck. It never reverses unless it has
+ * to.
+ * 
+ * @author Armin Reichert
+ */
+public class RandomBot implements Steering {
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final XorShiftRandom random;
+	private int lastTileIndex = -1;
+
+	public RandomBot(long seed) {
+		random = new XorShiftRandom(seed);
+	}
+
+	@Override
+	public Direction steer(GameModel game) {
+		PacMan pacMan = game.pacMan;
+		int tileIndex = World.tileIndex(pacMan.row(), pacMan.col());
+		if (tileIndex == lastTileIndex && !pacMan.stuck) {
+			return null;
+		}
+		lastTileIndex = tileIndex;
+		int moves = game.world.moves(pacMan.row(), pacMan.col(), World.PAC_MAN);
+		int forward = moves & ~World.dirBit(pacMan.moveDir.opposite());
+		if (forward != 0) {
+			moves = forward;
+		}
+		if (moves == 0) {
+			return null;
+		}
+		int choice = random.nextInt(Integer.bitCount(moves));
+		for (Direction dir : DIRECTIONS) {
+			if ((moves & World.dirBit(dir)) != 0 && choice-- == 0) {
+				return dir;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.controller;
+
+import java.util.List;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * Source of the direction Pac-Man wants to move to. Called once per tick while the game is in state
+ * {@link GameState#PLAYING} on the thread running the simulation, in windowed and headless mode alike.
+ * <p>
+ * Implementations only read the model and should not allocate, so that bots can be evaluated at full simulation
+ * speed. Available implementations are the {@link de.amr.yt.pacman.ui.Joystick}, the player of an
+ * {@link InputRecording} and the bots created by {@link #bot(String, long)}.
+ * 
+ * @author Armin Reichert
+ */
+@FunctionalInterface
+public interface Steering {
+
+	/** Steering that never requests a direction. */
+	public static final Steering NONE = game -> null;
+
+	/** Names of the bots that can be created by {@link #bot(String, long)}. */
+	public static final List<String> BOT_NAMES = List.of("random", "pellets", "mcts");
+
+	/**
+	 * @param name bot name, one of {@link #BOT_NAMES}
+	 * @param seed random seed used by bots making random decisions
+	 * @return new bot steering, searching bots use their default time budget
+	 */
+	public static Steering bot(String name, long seed) {
+		return bot(name, seed, MctsBot.DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * @param name         bot name, one of {@link #BOT_NAMES}
+	 * @param seed         random seed used by bots making random decisions
+	 * @param budgetMillis search time per decision in milliseconds, used by searching bots (<code>mcts</code>)
+	 * @return new bot steering
+	 */
+	public static Steering bot(String name, long seed, int budgetMillis) {
+		return switch (name) {
+		case "random" -> new RandomBot(seed);
+		case "pellets" -> new PelletBot();
+		case "mcts" -> new MctsBot(seed, budgetMillis);
+		default -> throw new IllegalArgumentException("Unknown bot '%s', available bots: %s".formatted(name, BOT_NAMES));
+		};
+	}
+
+	/**
+	 * @param game the game model
+	 * @return the direction Pac-Man should take or <code>null</code> if no direction is requested
+	 */
+	Direction steer(GameModel game);
+}
@@ -44,6 +44,20 @@ public abstract class Animation<T> {
 		public Object sprite() {
 			return null;
 		}
+
+		// shared by all games, so it must not have mutable state
+
+		@Override
+		public void setEnabled(boolean enabled) {
+		}
+
+		@Override
+		public void reset() {
+		}
+
+		@Override
+		public void tick() {
+		}
 	};
 
 	/**
@@ -60,15 +74,16 @@ public abstract class Animation<T> {
 	}
 
 	/**
-	 * Returns an animation frame for the current game clock time.
+	 * Returns an animation frame for the current time of the given clock.
 	 * 
+	 * @param clock      the game clock
 	 * @param numFrames  number of frames of the complete animation
 	 * @param frameTicks duration of a single frame in ticks
 	 * @return <code>frame(3, 4)</code> returns for example the current entry from the sequence
 	 *         <code>0 0 0 0 1 1 1 1 2 2 2 2...</code>
 	 */
-	public static int frame(int numFrames, int frameTicks) {
-		return frame(GameClock.get().getTicks(), numFrames, frameTicks);
+	public static int frame(GameClock clock, int numFrames, int frameTicks) {
+		return frame(clock.getTicks(), numFrames, frameTicks);
 	}
 
 	protected String name;
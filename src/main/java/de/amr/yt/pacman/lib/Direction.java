@@ -23,10 +23,6 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.lib;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * @author Armin Reichert
  */
@@ -37,13 +33,7 @@ public enum Direction {
 	public final Vector2 vector;
 
 	private Direction(int dx, int dy) {
-		vector = new Vector2(dx, dy);
-	}
-
-	public static List<Direction> valuesShuffled() {
-		List<Direction> directions = Arrays.asList(Direction.values());
-		Collections.shuffle(directions);
-		return directions;
+		vector = Vector2.v(dx, dy);
 	}
 
 	public Direction opposite() {
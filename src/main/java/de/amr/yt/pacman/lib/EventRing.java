@@ -0,0 +1,117 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded ring buffer of timestamped events for exactly one producer and one consumer thread. Neither side locks or
+ * allocates: the producer publishes an event by a release store of the tail index, the consumer frees the slots by a
+ * release store of the head index. If the ring is full, new events are dropped and counted.
+ * 
+ * @author Armin Reichert
+ */
+public class EventRing {
+
+	@FunctionalInterface
+	public interface EventConsumer {
+
+		void accept(int code, long timestamp);
+	}
+
+	private final int[] codes;
+	private final long[] timestamps;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong(); // next slot to read, written by consumer
+	private final AtomicLong tail = new AtomicLong(); // next slot to write, written by producer
+	private volatile long dropped; // written by producer
+
+	/**
+	 * @param capacity capacity, must be a power of two
+	 */
+	public EventRing(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two but is " + capacity);
+		}
+		codes = new int[capacity];
+		timestamps = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	public int capacity() {
+		return codes.length;
+	}
+
+	/**
+	 * Adds an event. Must only be called by the producer thread.
+	 * 
+	 * @param code      event code
+	 * @param timestamp event time
+	 * @return <code>false</code> if the ring was full and the event has been dropped
+	 */
+	public boolean offer(int code, long timestamp) {
+		long t = tail.get();
+		if (t - head.getAcquire() == codes.length) {
+			dropped++;
+			return false;
+		}
+		int slot = (int) t & mask;
+		codes[slot] = code;
+		timestamps[slot] = timestamp;
+		tail.setRelease(t + 1);
+		return true;
+	}
+
+	/**
+	 * Passes all available events in order to the given consumer and removes them. Must only be called by the consumer
+	 * thread.
+	 * 
+	 * @param consumer event consumer
+	 * @return number of events drained
+	 */
+	public int drain(EventConsumer consumer) {
+		long h = head.get();
+		long t = tail.getAcquire();
+		for (long i = h; i < t; ++i) {
+			int slot = (int) i & mask;
+			consumer.accept(codes[slot], timestamps[slot]);
+		}
+		head.setRelease(t);
+		return (int) (t - h);
+	}
+
+	/**
+	 * @return number of events waiting, approximate if called while the other thread is active
+	 */
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * @return number of events dropped because the ring was full
+	 */
+	public long dropped() {
+		return dropped;
+	}
+}
@@ -25,36 +25,79 @@ package de.amr.yt.pacman.lib;
 
 import static de.amr.yt.pacman.lib.Logging.log;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
+ * Clock driving the simulation. The simulation always advances in ticks of {@link #SIMULATION_RATE} Hz game time, the
+ * clock frequency only determines how many ticks are executed per real second (game speed).
+ * 
  * @author Armin Reichert
  */
 public class GameClock {
 
-	private static GameClock theClock = new GameClock(60);
+	/** Number of simulation ticks per second of game time */
+	public static final int SIMULATION_RATE = 60;
 
-	public static GameClock get() {
-		return theClock;
-	}
+	public static final int DEFAULT_FREQUENCY = SIMULATION_RATE;
 
 	/**
-	 * Returns the number of ticks corresponding to the given seconds at current clock speed.
+	 * Returns the number of simulation ticks corresponding to the given seconds of game time. This does not depend on
+	 * the clock frequency.
 	 * 
 	 * @param seconds seconds
 	 * @return ticks corresponding to seconds
 	 */
-	public static int sec(double seconds) {
-		return (int) (theClock.frequency * seconds);
+	public int sec(double seconds) {
+		return (int) (SIMULATION_RATE * seconds);
 	}
 
+	/**
+	 * Scheduling mode of the clock thread.
+	 */
+	public enum Mode {
+		/** Sleeps the remaining time of each tick (millisecond resolution, no drift compensation). */
+		SLEEP,
+		/**
+		 * Runs ticks at absolute deadlines using <code>LockSupport.parkNanos</code> followed by a short spin. Drift is
+		 * compensated and after a stall, missed updates are executed without rendering (see
+		 * {@link GameClock#setMaxCatchUpTicks(int)}).
+		 */
+		PRECISE
+	}
+
+	/** Time before a deadline where the clock stops parking and spins */
+	private static final long SPIN_NANOS = 250_000;
+
+	/** Timing histograms of the tick phases */
+	public final Profiler profiler = new Profiler();
+	private final TimingHistogram tickTimes = profiler.phase("tick");
+	private final TimingHistogram overshootTimes = profiler.phase("overshoot");
+
 	private long ticks;
-	private int frequency;
-	private Runnable onTick = () -> Logging.log("Tick");
+	private volatile int frequency;
+	private volatile Mode mode = Mode.PRECISE;
+	private volatile int maxCatchUpTicks = 5;
+	private Runnable onUpdate = () -> Logging.debug("Tick");
+	private Runnable onRender = () -> {
+	};
 	private Thread thread;
 	private volatile boolean running;
 	private long lastFrameRate;
 	private long frameCount;
 	private long frameCountStart;
 
+	// jitter statistics (lateness of tick start relative to its deadline), precise mode only, written by clock thread
+	private volatile long jitterCount;
+	private volatile double jitterMean;
+	private double jitterM2;
+	private volatile long jitterMax;
+	private volatile long catchUpTicks;
+	private volatile long droppedTicks;
+
+	public GameClock() {
+		this(DEFAULT_FREQUENCY);
+	}
+
 	public GameClock(int frequency) {
 		this.frequency = frequency;
 	}
@@ -87,12 +130,103 @@ public class GameClock {
 		return lastFrameRate;
 	}
 
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @param mode scheduling mode, takes effect when the clock is (re)started
+	 */
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public int getMaxCatchUpTicks() {
+		return maxCatchUpTicks;
+	}
+
+	/**
+	 * @param maxCatchUpTicks maximum number of updates executed without rendering to catch up after a stall. If the
+	 *                        clock is further behind, the remaining ticks are dropped (game time is lost).
+	 */
+	public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+		this.maxCatchUpTicks = Math.max(0, maxCatchUpTicks);
+	}
+
+	/**
+	 * @return mean lateness of tick starts in microseconds (precise mode)
+	 */
+	public double getJitterMeanMicros() {
+		return jitterMean / 1_000;
+	}
+
+	/**
+	 * @return standard deviation of the tick start lateness in microseconds (precise mode)
+	 */
+	public double getJitterStdDevMicros() {
+		long n = jitterCount;
+		return n > 1 ? Math.sqrt(jitterM2 / (n - 1)) / 1_000 : 0;
+	}
+
+	/**
+	 * @return maximum lateness of a tick start in microseconds (precise mode)
+	 */
+	public double getJitterMaxMicros() {
+		return jitterMax / 1_000.0;
+	}
+
+	/**
+	 * @return number of updates executed without rendering to catch up after stalls
+	 */
+	public long getCatchUpTicks() {
+		return catchUpTicks;
+	}
+
+	/**
+	 * @return number of ticks dropped because the clock was more than the allowed catch-up ticks behind
+	 */
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	public String jitterStatistics() {
+		return "jitter mean=%.1fus stddev=%.1fus max=%.1fus, catch-up ticks=%d, dropped ticks=%d".formatted(
+				getJitterMeanMicros(), getJitterStdDevMicros(), getJitterMaxMicros(), catchUpTicks, droppedTicks);
+	}
+
+	public void resetStatistics() {
+		jitterCount = 0;
+		jitterMean = 0;
+		jitterM2 = 0;
+		jitterMax = 0;
+		catchUpTicks = 0;
+		droppedTicks = 0;
+	}
+
+	/**
+	 * Starts the clock with a single tick action.
+	 * 
+	 * @param onTick action executed on each tick
+	 */
 	public synchronized void start(Runnable onTick) {
-		this.onTick = onTick;
-		thread = new Thread(this::loop, "GameClock");
+		start(onTick, () -> {
+		});
+	}
+
+	/**
+	 * Starts the clock. On each tick, the update action is executed followed by the render action. When catching up
+	 * after a stall (precise mode), only the update action is executed for the missed ticks.
+	 * 
+	 * @param onUpdate update action
+	 * @param onRender render action
+	 */
+	public synchronized void start(Runnable onUpdate, Runnable onRender) {
+		this.onUpdate = onUpdate;
+		this.onRender = onRender;
+		thread = new Thread(mode == Mode.PRECISE ? this::preciseLoop : this::loop, "GameClock");
 		running = true;
 		thread.start();
-		log("Clock started with %d Hz", frequency);
+		log("Clock started with %d Hz (%s mode)", frequency, mode);
 	}
 
 	private void loop() {
@@ -104,23 +238,87 @@ public class GameClock {
 
 	private void tick() {
 		long start = System.nanoTime();
-		onTick.run();
+		onUpdate.run();
+		onRender.run();
 		long end = System.nanoTime();
 		long duration = end - start;
 		long targetDuration = 1_000_000_000L / frequency;
+		tickTimes.record(duration);
 		if (duration < targetDuration) {
 			try {
 				Thread.sleep((targetDuration - duration) / 1_000_000L);
 			} catch (InterruptedException e) {
 				e.printStackTrace();
 			}
+			overshootTimes.record(System.nanoTime() - start - targetDuration);
 		}
+		countTick(end);
+	}
+
+	private void countTick(long time) {
 		++ticks;
 		++frameCount;
-		if (end - frameCountStart >= 1_000_000_000L) {
+		if (time - frameCountStart >= 1_000_000_000L) {
 			lastFrameRate = frameCount;
 			frameCount = 0;
-			frameCountStart = end;
+			frameCountStart = time;
+		}
+	}
+
+	private void preciseLoop() {
+		long deadline = System.nanoTime();
+		frameCountStart = deadline;
+		while (running) {
+			long start = System.nanoTime();
+			recordJitter(start - deadline);
+			overshootTimes.record(start - deadline);
+			onUpdate.run();
+			countTick(System.nanoTime());
+			long period = 1_000_000_000L / frequency;
+			deadline += period;
+			// catch up after a stall: update without rendering
+			int caughtUp = 0;
+			long now = System.nanoTime();
+			while (now - deadline >= period && caughtUp < maxCatchUpTicks && running) {
+				onUpdate.run();
+				countTick(now);
+				deadline += period;
+				++caughtUp;
+				now = System.nanoTime();
+			}
+			catchUpTicks += caughtUp;
+			if (now - deadline >= period) {
+				// too far behind, drop the missed ticks
+				droppedTicks += (now - deadline) / period;
+				deadline = now;
+			}
+			onRender.run();
+			tickTimes.record(System.nanoTime() - start);
+			waitUntil(deadline);
+		}
+	}
+
+	private void waitUntil(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		while (remaining > SPIN_NANOS) {
+			LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+			remaining = deadline - System.nanoTime();
+		}
+		while (deadline - System.nanoTime() > 0) {
+			Thread.onSpinWait();
+		}
+	}
+
+	private void recordJitter(long lateness) {
+		// Welford's online algorithm, only called on the clock thread
+		long n = jitterCount + 1;
+		double delta = lateness - jitterMean;
+		double mean = jitterMean + delta / n;
+		jitterM2 += delta * (lateness - mean);
+		jitterMean = mean;
+		jitterCount = n;
+		if (lateness > jitterMax) {
+			jitterMax = lateness;
 		}
 	}
 
@@ -129,6 +327,9 @@ public class GameClock {
 		try {
 			thread.join();
 			log("Clock stopped");
+			if (mode == Mode.PRECISE) {
+				log("Clock statistics: %s", jitterStatistics());
+			}
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
@@ -23,21 +23,121 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.lib;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
- * Log messages.
+ * Log messages. Facade over a log4j formatter logger, messages use {@link String#format} syntax.
+ * <p>
+ * The fixed-arity methods check the level before doing anything else, so a disabled call neither formats the message
+ * nor allocates an argument array. The primitive overloads also avoid boxing their argument. Output is written by the
+ * asynchronous appender configured in <code>log4j2.xml</code>, so the calling thread never waits for the console.
  * 
  * @author Armin Reichert
  */
 public class Logging {
 
-	public static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+	private static final Logger LOGGER = LogManager.getFormatterLogger("de.amr.yt.pacman");
+
+	public static boolean isDebugEnabled() {
+		return LOGGER.isDebugEnabled();
+	}
+
+	public static void log(String msg) {
+		LOGGER.info(msg);
+	}
+
+	public static void log(String msg, Object arg) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg);
+		}
+	}
+
+	public static void log(String msg, long arg) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg);
+		}
+	}
+
+	public static void log(String msg, Object arg1, Object arg2) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg1, arg2);
+		}
+	}
+
+	public static void log(String msg, long arg1, Object arg2) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg1, arg2);
+		}
+	}
+
+	public static void log(String msg, long arg1, long arg2) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg1, arg2);
+		}
+	}
+
+	public static void log(String msg, Object arg1, Object arg2, Object arg3) {
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, arg1, arg2, arg3);
+		}
+	}
 
 	public static void log(String msg, Object... args) {
-		String timestamp = TIME_FORMAT.format(LocalTime.now());
-		String message = String.format(msg, args);
-		System.err.printf("[%s] %s\n", timestamp, message);
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(msg, args);
+		}
+	}
+
+	public static void debug(String msg) {
+		LOGGER.debug(msg);
+	}
+
+	public static void debug(String msg, Object arg) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg);
+		}
+	}
+
+	public static void debug(String msg, long arg) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg);
+		}
+	}
+
+	public static void debug(String msg, Object arg1, Object arg2) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg1, arg2);
+		}
+	}
+
+	public static void debug(String msg, long arg1, Object arg2) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg1, arg2);
+		}
+	}
+
+	public static void debug(String msg, long arg1, long arg2) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg1, arg2);
+		}
+	}
+
+	public static void debug(String msg, Object arg1, Object arg2, Object arg3) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg1, arg2, arg3);
+		}
+	}
+
+	public static void debug(String msg, long arg1, long arg2, long arg3, long arg4) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, arg1, arg2, arg3, arg4);
+		}
+	}
+
+	public static void debug(String msg, Object... args) {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(msg, args);
+		}
 	}
-}
\ No newline at end of file
+}
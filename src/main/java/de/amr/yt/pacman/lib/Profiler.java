@@ -0,0 +1,85 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collection of named timing histograms, one per phase of a tick (input, update, paint etc.).
+ * 
+ * @author Armin Reichert
+ */
+public class Profiler {
+
+	private final List<TimingHistogram> phases = new ArrayList<>();
+
+	/**
+	 * Returns the histogram of the phase with the given name, creating it if necessary. Callers should keep the
+	 * returned reference instead of looking it up on each tick.
+	 * 
+	 * @param name phase name
+	 * @return histogram of the phase
+	 */
+	public synchronized TimingHistogram phase(String name) {
+		for (TimingHistogram phase : phases) {
+			if (phase.name.equals(name)) {
+				return phase;
+			}
+		}
+		TimingHistogram phase = new TimingHistogram(name);
+		phases.add(phase);
+		return phase;
+	}
+
+	/**
+	 * @return the phase histograms in order of creation
+	 */
+	public synchronized List<TimingHistogram> phases() {
+		return Collections.unmodifiableList(new ArrayList<>(phases));
+	}
+
+	public synchronized void reset() {
+		phases.forEach(TimingHistogram::reset);
+	}
+
+	/**
+	 * Writes all histograms into the given file.
+	 * 
+	 * @param file file
+	 * @throws IOException if writing fails
+	 */
+	public void dump(File file) throws IOException {
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			for (TimingHistogram phase : phases()) {
+				phase.print(out);
+				out.println();
+			}
+		}
+	}
+}
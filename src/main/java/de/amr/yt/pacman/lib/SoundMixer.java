@@ -0,0 +1,283 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Software mixer playing any number of preloaded sounds through a single audio line.
+ * <p>
+ * Sounds are given as 16-bit mono PCM at {@link #SAMPLE_RATE}. Play requests only enqueue a command into a lock-free
+ * queue, the mixer thread applies them before mixing the next buffer. All voice state is owned by the mixer thread.
+ * 
+ * @author Armin Reichert
+ */
+public class SoundMixer {
+
+	public static final int SAMPLE_RATE = 44100;
+
+	public static final int MAX_VOICES = 16;
+
+	private static final int PLAY = 0, LOOP = 1, STOP = 2, STOP_ALL = 3;
+
+	private static class Command {
+
+		final int op;
+		final int sound;
+
+		Command(int op, int sound) {
+			this.op = op;
+			this.sound = sound;
+		}
+	}
+
+	private static class Voice {
+
+		int sound = -1;
+		int position;
+		boolean loop;
+	}
+
+	/**
+	 * Resamples a sound by linear interpolation.
+	 * 
+	 * @param samples  mono samples
+	 * @param fromRate sample rate of the given samples
+	 * @param toRate   sample rate of the result
+	 * @return samples at the new rate
+	 */
+	public static short[] resample(short[] samples, float fromRate, float toRate) {
+		if (fromRate == toRate || samples.length == 0) {
+			return samples;
+		}
+		double step = fromRate / toRate;
+		short[] result = new short[(int) (samples.length / step)];
+		for (int i = 0; i < result.length; ++i) {
+			double x = i * step;
+			int j = (int) x;
+			double frac = x - j;
+			int next = Math.min(j + 1, samples.length - 1);
+			result[i] = (short) Math.round(samples[j] + frac * (samples[next] - samples[j]));
+		}
+		return result;
+	}
+
+	private final short[][] sounds;
+	private final int bufferFrames;
+	private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+	private final Voice[] voices = new Voice[MAX_VOICES];
+	private final AtomicIntegerArray voicesPerSound;
+	private final int[] accu;
+	private volatile boolean running;
+	private Thread thread;
+
+	/**
+	 * @param sounds       the sounds as 16-bit mono PCM, a sound is identified by its index in this array
+	 * @param bufferFrames number of frames mixed and written in one go, determines the output latency
+	 */
+	public SoundMixer(short[][] sounds, int bufferFrames) {
+		this.sounds = sounds;
+		this.bufferFrames = bufferFrames;
+		for (int i = 0; i < voices.length; ++i) {
+			voices[i] = new Voice();
+		}
+		voicesPerSound = new AtomicIntegerArray(sounds.length);
+		accu = new int[bufferFrames];
+	}
+
+	public int bufferFrames() {
+		return bufferFrames;
+	}
+
+	/** Starts another instance of the given sound, overlapping any instance that is already playing. */
+	public void play(int sound) {
+		commands.add(new Command(PLAY, sound));
+	}
+
+	/** Loops the given sound if it is not already playing. */
+	public void loop(int sound) {
+		commands.add(new Command(LOOP, sound));
+	}
+
+	/** Stops all instances of the given sound. */
+	public void stop(int sound) {
+		commands.add(new Command(STOP, sound));
+	}
+
+	public void stopAll() {
+		commands.add(new Command(STOP_ALL, -1));
+	}
+
+	/**
+	 * @param sound a sound
+	 * @return if the mixer currently plays the sound. Commands not yet applied by the mixer thread are not reflected.
+	 */
+	public boolean isPlaying(int sound) {
+		return voicesPerSound.get(sound) > 0;
+	}
+
+	/**
+	 * Opens the audio line and starts the mixer thread.
+	 * 
+	 * @throws LineUnavailableException if no audio line in the mixer's format is available
+	 */
+	public synchronized void start() throws LineUnavailableException {
+		if (running) {
+			return;
+		}
+		AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+		SourceDataLine line = AudioSystem.getSourceDataLine(format);
+		// room for two buffers: one playing, one written
+		line.open(format, 2 * bufferFrames * format.getFrameSize());
+		line.start();
+		running = true;
+		thread = new Thread(() -> run(line), "SoundMixer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+	}
+
+	public synchronized void close() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			thread.join();
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run(SourceDataLine line) {
+		short[] samples = new short[bufferFrames];
+		byte[] bytes = new byte[2 * bufferFrames];
+		while (running) {
+			mix(samples, bufferFrames);
+			for (int i = 0; i < bufferFrames; ++i) {
+				bytes[2 * i] = (byte) samples[i];
+				bytes[2 * i + 1] = (byte) (samples[i] >> 8);
+			}
+			// blocks until the line has room, this paces the mixer thread
+			line.write(bytes, 0, bytes.length);
+		}
+		line.stop();
+		line.close();
+	}
+
+	/**
+	 * Applies the pending commands and mixes the next frames of all playing voices. Called by the mixer thread, only
+	 * public for testing without an audio line.
+	 * 
+	 * @param out    receives the mixed samples, clipped to the 16-bit range
+	 * @param frames number of frames to mix, at most {@link #bufferFrames()}
+	 */
+	public void mix(short[] out, int frames) {
+		for (Command command = commands.poll(); command != null; command = commands.poll()) {
+			apply(command);
+		}
+		Arrays.fill(accu, 0, frames, 0);
+		for (Voice voice : voices) {
+			if (voice.sound != -1) {
+				mixVoice(voice, frames);
+			}
+		}
+		for (int i = 0; i < frames; ++i) {
+			out[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, accu[i]));
+		}
+	}
+
+	private void mixVoice(Voice voice, int frames) {
+		short[] pcm = sounds[voice.sound];
+		int i = 0;
+		while (i < frames) {
+			int n = Math.min(frames - i, pcm.length - voice.position);
+			for (int k = 0; k < n; ++k) {
+				accu[i + k] += pcm[voice.position + k];
+			}
+			i += n;
+			voice.position += n;
+			if (voice.position == pcm.length) {
+				if (voice.loop && pcm.length > 0) {
+					voice.position = 0;
+				} else {
+					release(voice);
+					return;
+				}
+			}
+		}
+	}
+
+	private void apply(Command command) {
+		switch (command.op) {
+		case PLAY -> allocate(command.sound, false);
+		case LOOP -> {
+			if (voicesPerSound.get(command.sound) == 0) {
+				allocate(command.sound, true);
+			}
+		}
+		case STOP -> {
+			for (Voice voice : voices) {
+				if (voice.sound == command.sound) {
+					release(voice);
+				}
+			}
+		}
+		case STOP_ALL -> {
+			for (Voice voice : voices) {
+				if (voice.sound != -1) {
+					release(voice);
+				}
+			}
+		}
+		default -> throw new IllegalStateException();
+		}
+	}
+
+	private void allocate(int sound, boolean loop) {
+		for (Voice voice : voices) {
+			if (voice.sound == -1) {
+				voice.sound = sound;
+				voice.position = 0;
+				voice.loop = loop;
+				voicesPerSound.incrementAndGet(sound);
+				return;
+			}
+		}
+		// all voices busy: the new sound is dropped
+	}
+
+	private void release(Voice voice) {
+		voicesPerSound.decrementAndGet(voice.sound);
+		voice.sound = -1;
+	}
+}
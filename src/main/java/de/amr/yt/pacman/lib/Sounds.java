@@ -30,75 +30,142 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 
 /**
+ * Game sounds. All sounds are decoded at load time and played by a {@link SoundMixer}, so playing a sound never loads
+ * anything and never blocks the caller.
+ * 
  * @author Armin Reichert
  */
 public class Sounds {
 
-	private static Map<String, Clip> clipCache = new HashMap<>();
+	public static final String[] SOUND_NAMES = { "level_start", "pacman_death" };
 
-	private static Clip loadClip(String clipName)
-			throws LineUnavailableException, UnsupportedAudioFileException, IOException {
-		URL url = Sounds.class.getResource("/sounds/" + clipName + ".wav");
-		if (url == null) {
-			String message = "Could not load audio resource, path='%s'";
-			throw new RuntimeException(message);
-		}
-		Clip clip = AudioSystem.getClip();
-		AudioInputStream ais = AudioSystem.getAudioInputStream(url);
-		clip.open(ais);
-		clipCache.put(clipName, clip);
-		return clip;
+	/** Size of the mixer buffer in milliseconds. Smaller values reduce latency but risk audible dropouts. */
+	public static int bufferMillis = 20;
+
+	private static volatile boolean enabled = true;
+	private static volatile Map<String, Integer> soundIDs = Map.of();
+	private static volatile SoundMixer mixer;
+
+	/**
+	 * Enables or disables sound output. When disabled, no audio resources are loaded and all play requests are ignored.
+	 * 
+	 * @param enabled if sound output is enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		Sounds.enabled = enabled;
 	}
 
-	public static Clip clip(String clipName) {
-		if (clipCache.containsKey(clipName)) {
-			log("Found clip '%s' in cache", clipName);
-			return clipCache.get(clipName);
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Decodes all sounds and starts the mixer. If no audio line is available, the game runs without sound.
+	 */
+	public static synchronized void load() {
+		if (!enabled || mixer != null) {
+			return;
 		}
+		Map<String, Integer> ids = new HashMap<>();
+		short[][] pcm = new short[SOUND_NAMES.length][];
+		for (int i = 0; i < SOUND_NAMES.length; ++i) {
+			try {
+				pcm[i] = decode(SOUND_NAMES[i]);
+			} catch (Exception x) {
+				log("Could not load sound '%s': %s", SOUND_NAMES[i], x.getMessage());
+				pcm[i] = new short[0];
+			}
+			ids.put(SOUND_NAMES[i], i);
+		}
+		SoundMixer newMixer = new SoundMixer(pcm, SoundMixer.SAMPLE_RATE * bufferMillis / 1000);
 		try {
-			Clip clip = loadClip(clipName);
-			clipCache.put(clipName, clip);
-			return clip;
-		} catch (Exception x) {
-			log("Could not load clip '%s': %s", clipName, x.getMessage());
-			return null;
+			newMixer.start();
+		} catch (LineUnavailableException | IllegalArgumentException x) {
+			log("No audio output available: %s", x.getMessage());
+			return;
+		}
+		soundIDs = Map.copyOf(ids);
+		mixer = newMixer;
+		log("%d sounds loaded, mixer buffer is %d frames (%d ms)", SOUND_NAMES.length, newMixer.bufferFrames(),
+				bufferMillis);
+	}
+
+	/**
+	 * @param soundName sound name, the file name without extension
+	 * @return the sound as 16-bit mono samples at the mixer's sample rate
+	 */
+	private static short[] decode(String soundName) throws UnsupportedAudioFileException, IOException {
+		URL url = Sounds.class.getResource("/sounds/" + soundName + ".wav");
+		if (url == null) {
+			throw new RuntimeException("Could not load audio resource, path='%s'".formatted(soundName));
+		}
+		try (AudioInputStream source = AudioSystem.getAudioInputStream(url)) {
+			AudioFormat sourceFormat = source.getFormat();
+			int channels = sourceFormat.getChannels();
+			AudioFormat pcmFormat = new AudioFormat(sourceFormat.getSampleRate(), 16, channels, true, false);
+			byte[] bytes;
+			try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+				bytes = pcm.readAllBytes();
+			}
+			short[] samples = new short[bytes.length / (2 * channels)];
+			for (int i = 0; i < samples.length; ++i) {
+				int sum = 0;
+				for (int c = 0; c < channels; ++c) {
+					int offset = 2 * (i * channels + c);
+					sum += (short) ((bytes[offset] & 0xFF) | bytes[offset + 1] << 8);
+				}
+				samples[i] = (short) (sum / channels);
+			}
+			return SoundMixer.resample(samples, sourceFormat.getSampleRate(), SoundMixer.SAMPLE_RATE);
 		}
 	}
 
-	public static void play(String clipName) {
-		Clip clip = clip(clipName);
-		clip.setFramePosition(0);
-		clip.start();
+	private static int soundID(String soundName) {
+		Integer id = soundIDs.get(soundName);
+		return id != null ? id : -1;
 	}
 
-	public static void loop(String clipName) {
-		Clip clip = clip(clipName);
-		if (!clip.isRunning()) {
-			clip.setFramePosition(0);
-			clip.loop(Clip.LOOP_CONTINUOUSLY);
+	public static void play(String soundName) {
+		SoundMixer m = mixer;
+		int id = soundID(soundName);
+		if (enabled && m != null && id != -1) {
+			m.play(id);
 		}
 	}
 
-	public static void stop(String clipName) {
-		Clip clip = clip(clipName);
-		clip.stop();
+	public static void loop(String soundName) {
+		SoundMixer m = mixer;
+		int id = soundID(soundName);
+		if (enabled && m != null && id != -1) {
+			m.loop(id);
+		}
+	}
+
+	public static void stop(String soundName) {
+		SoundMixer m = mixer;
+		int id = soundID(soundName);
+		if (m != null && id != -1) {
+			m.stop(id);
+		}
 	}
 
 	public static void stopAll() {
-		for (Clip clip : clipCache.values()) {
-			clip.stop();
+		SoundMixer m = mixer;
+		if (m != null) {
+			m.stopAll();
 		}
 	}
 
-	public static boolean isRunning(String clipName) {
-		Clip clip = clip(clipName);
-		return clip.isRunning();
+	public static boolean isRunning(String soundName) {
+		SoundMixer m = mixer;
+		int id = soundID(soundName);
+		return m != null && id != -1 && m.isPlaying(id);
 	}
-}
\ No newline at end of file
+}
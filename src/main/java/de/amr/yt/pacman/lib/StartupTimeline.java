@@ -0,0 +1,134 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import static de.amr.yt.pacman.lib.Logging.log;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the startup phases of the application, measured from JVM start, and logs them when the first frame has been
+ * rendered. Phases may be recorded from any thread.
+ * 
+ * @author Armin Reichert
+ */
+public class StartupTimeline {
+
+	private static class Phase {
+
+		final String name;
+		final String thread;
+		final long startNanos;
+		final long endNanos;
+
+		Phase(String name, String thread, long startNanos, long endNanos) {
+			this.name = name;
+			this.thread = thread;
+			this.startNanos = startNanos;
+			this.endNanos = endNanos;
+		}
+	}
+
+	private static final long ORIGIN_NANOS = System.nanoTime();
+	private static final long ORIGIN_MILLIS = System.currentTimeMillis();
+
+	/** JVM start time on the {@link System#nanoTime()} scale (only millisecond precision). */
+	private static final long JVM_START_NANOS = ORIGIN_NANOS - 1_000_000L
+			* (ORIGIN_MILLIS - ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli).orElse(ORIGIN_MILLIS));
+
+	private static final List<Phase> phases = new ArrayList<>();
+	private static final AtomicBoolean finished = new AtomicBoolean();
+
+	public static void record(String name, long startNanos, long endNanos) {
+		synchronized (phases) {
+			phases.add(new Phase(name, Thread.currentThread().getName(), startNanos, endNanos));
+		}
+	}
+
+	/**
+	 * Records an event without duration.
+	 */
+	public static void mark(String name) {
+		long now = System.nanoTime();
+		record(name, now, now);
+	}
+
+	/**
+	 * @param name phase name
+	 * @param work the work done in this phase
+	 * @return runnable doing the work and recording its duration as a phase
+	 */
+	public static Runnable timed(String name, Runnable work) {
+		return () -> {
+			long start = System.nanoTime();
+			try {
+				work.run();
+			} finally {
+				record(name, start, System.nanoTime());
+			}
+		};
+	}
+
+	/**
+	 * Marks the first rendered frame and logs the timeline. Only the first call has an effect, so this can be called
+	 * for every frame.
+	 */
+	public static void firstFrameRendered() {
+		if (!finished.get() && finished.compareAndSet(false, true)) {
+			mark("first frame");
+			report().forEach(line -> log(line));
+		}
+	}
+
+	/**
+	 * @return report lines, one per phase ordered by start time, with offsets from JVM start in milliseconds
+	 */
+	public static List<String> report() {
+		List<Phase> sorted;
+		synchronized (phases) {
+			sorted = new ArrayList<>(phases);
+		}
+		sorted.sort(Comparator.comparingLong(phase -> phase.startNanos));
+		List<String> lines = new ArrayList<>();
+		lines.add("Startup timeline:    start duration (ms since JVM start)");
+		for (Phase phase : sorted) {
+			double start = millis(phase.startNanos - JVM_START_NANOS);
+			if (phase.startNanos == phase.endNanos) {
+				lines.add("  %-16s %8.1f".formatted(phase.name, start));
+			} else {
+				double duration = millis(phase.endNanos - phase.startNanos);
+				lines.add("  %-16s %8.1f %8.1f  [%s]".formatted(phase.name, start, duration, phase.thread));
+			}
+		}
+		return lines;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.util.Arrays;
+
+/**
+ * Reusable flat buffer of primitive values used for saving and restoring object state without creating garbage.
+ * Values must be read in the same order in which they have been written.
+ * 
+ * @author Armin Reichert
+ */
+public class StateBuffer {
+
+	private int[] data;
+	private int size;
+	private int pos;
+
+	public StateBuffer() {
+		this(256);
+	}
+
+	public StateBuffer(int capacity) {
+		data = new int[capacity];
+	}
+
+	/**
+	 * Clears the buffer for writing.
+	 */
+	public void clear() {
+		size = 0;
+		pos = 0;
+	}
+
+	/**
+	 * Resets the read position to the start of the buffer.
+	 */
+	public void rewind() {
+		pos = 0;
+	}
+
+	/**
+	 * @return number of values written into this buffer
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Makes this buffer an exact copy of the given buffer.
+	 * 
+	 * @param other buffer to copy
+	 */
+	public void copyFrom(StateBuffer other) {
+		if (data.length < other.size) {
+			data = new int[other.data.length];
+		}
+		System.arraycopy(other.data, 0, data, 0, other.size);
+		size = other.size;
+		pos = 0;
+	}
+
+	public void putInt(int value) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, 2 * data.length);
+		}
+		data[size++] = value;
+	}
+
+	public void putLong(long value) {
+		putInt((int) (value >>> 32));
+		putInt((int) value);
+	}
+
+	public void putFloat(float value) {
+		putInt(Float.floatToRawIntBits(value));
+	}
+
+	public void putBoolean(boolean value) {
+		putInt(value ? 1 : 0);
+	}
+
+	/**
+	 * @param value enum value, may be <code>null</code>
+	 */
+	public void putEnum(Enum<?> value) {
+		putInt(value != null ? value.ordinal() : -1);
+	}
+
+	public int getInt() {
+		if (pos == size) {
+			throw new IllegalStateException("No more values in state buffer");
+		}
+		return data[pos++];
+	}
+
+	public long getLong() {
+		long high = getInt();
+		return (high << 32) | (getInt() & 0xFFFF_FFFFL);
+	}
+
+	public float getFloat() {
+		return Float.intBitsToFloat(getInt());
+	}
+
+	public boolean getBoolean() {
+		return getInt() != 0;
+	}
+
+	/**
+	 * @param values all values of the enum type (pass a cached array to avoid garbage)
+	 * @return enum value or <code>null</code>
+	 */
+	public <E extends Enum<E>> E getEnum(E[] values) {
+		int ordinal = getInt();
+		return ordinal != -1 ? values[ordinal] : null;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with logarithmic buckets (8 sub-buckets per power of two, relative error
+ * below 12.5%). Also keeps the most recent samples for drawing a rolling graph.
+ * <p>
+ * Recording does not allocate. There must be a single writer thread, other threads may read while recording is going
+ * on and then see approximate values.
+ * 
+ * @author Armin Reichert
+ */
+public class TimingHistogram {
+
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int NUM_BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+	/** Number of recent samples kept for the rolling graph */
+	public static final int RECENT_SIZE = 120;
+
+	private static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) Math.max(0, value);
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	private static long bucketLowerBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exp = index / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = index % SUB_BUCKETS;
+		return (SUB_BUCKETS + sub) << (exp - SUB_BITS);
+	}
+
+	public final String name;
+	private final long[] counts = new long[NUM_BUCKETS];
+	private final long[] recent = new long[RECENT_SIZE];
+	private volatile long count;
+	private long sum;
+	private volatile long max;
+
+	public TimingHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param nanos duration in nanoseconds (negative values are counted as 0)
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		++counts[bucketIndex(nanos)];
+		recent[(int) (count % RECENT_SIZE)] = nanos;
+		sum += nanos;
+		if (nanos > max) {
+			max = nanos;
+		}
+		++count;
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0);
+		Arrays.fill(recent, 0);
+		sum = 0;
+		max = 0;
+		count = 0;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long max() {
+		return max;
+	}
+
+	public double mean() {
+		long n = count;
+		return n == 0 ? 0 : (double) sum / n;
+	}
+
+	/**
+	 * @param percentile percentile in range [0, 100]
+	 * @return approximate duration (lower bound of the bucket) below which the given percentage of samples lies
+	 */
+	public long percentile(double percentile) {
+		long n = count;
+		if (n == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100.0 * n);
+		long seen = 0;
+		for (int i = 0; i < NUM_BUCKETS; ++i) {
+			seen += counts[i];
+			if (seen >= rank && counts[i] > 0) {
+				return Math.min(bucketLowerBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @param age 0 = most recent sample, 1 = sample before etc.
+	 * @return recent sample or 0 if there is none
+	 */
+	public long recent(int age) {
+		long n = count;
+		if (age >= RECENT_SIZE || age >= n) {
+			return 0;
+		}
+		return recent[(int) ((n - 1 - age) % RECENT_SIZE)];
+	}
+
+	/**
+	 * @return one-line summary in microseconds
+	 */
+	public String summary() {
+		return "%-10s n=%-8d p50=%8.1fus p99=%8.1fus max=%8.1fus".formatted(name, count, percentile(50) / 1e3,
+				percentile(99) / 1e3, max / 1e3);
+	}
+
+	/**
+	 * Prints the summary and all non-empty buckets.
+	 * 
+	 * @param out print writer
+	 */
+	public void print(PrintWriter out) {
+		out.println(summary() + " mean=%.1fus".formatted(mean() / 1e3));
+		for (int i = 0; i < NUM_BUCKETS; ++i) {
+			if (counts[i] > 0) {
+				out.println("  >= %10.1fus: %d".formatted(bucketLowerBound(i) / 1e3, counts[i]));
+			}
+		}
+	}
+}
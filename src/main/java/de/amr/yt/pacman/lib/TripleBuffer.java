@@ -0,0 +1,92 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer for handing objects from a single producer thread to a single consumer thread.
+ * <p>
+ * The producer fills the {@link #back()} slot and calls {@link #publish()}, the consumer calls {@link #front()} to get
+ * the most recently published slot. Producer and consumer never block each other and never see the same slot at the
+ * same time, the slots are reused (no allocation after construction).
+ * 
+ * @author Armin Reichert
+ */
+public class TripleBuffer<T> {
+
+	private static final int INDEX_MASK = 0b11;
+	private static final int FRESH = 0b100;
+
+	private final T[] slots;
+
+	/** Index of the middle slot and flag telling if it contains a published, not yet consumed slot */
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0; // only accessed by producer
+	private int front = 2; // only accessed by consumer
+
+	@SuppressWarnings("unchecked")
+	public TripleBuffer(Supplier<T> factory) {
+		slots = (T[]) new Object[] { factory.get(), factory.get(), factory.get() };
+	}
+
+	/**
+	 * Producer side.
+	 * 
+	 * @return slot to be filled by the producer
+	 */
+	public T back() {
+		return slots[back];
+	}
+
+	/**
+	 * Producer side: publishes the back slot. The producer gets another slot for writing.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Consumer side.
+	 * 
+	 * @return most recently published slot. If nothing has been published since the last call, the same slot as before
+	 *         is returned.
+	 */
+	public T front() {
+		if ((middle.get() & FRESH) != 0) {
+			front = middle.getAndSet(front) & INDEX_MASK;
+		}
+		return slots[front];
+	}
+
+	/**
+	 * Consumer side.
+	 * 
+	 * @return if a slot has been published that has not yet been consumed by {@link #front()}
+	 */
+	public boolean hasFresh() {
+		return (middle.get() & FRESH) != 0;
+	}
+}
@@ -23,17 +23,56 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.lib;
 
-import java.util.Objects;
-
 /**
+ * Immutable integer vector. Vectors with coordinates inside the range {@link #CACHE_MIN_X} to {@link #CACHE_MAX_X},
+ * {@link #CACHE_MIN_Y} to {@link #CACHE_MAX_Y} (minimum inclusive, maximum exclusive) are interned:
+ * {@link #v(int, int)} and all arithmetic operations return the shared instance, so that tile computations in the game
+ * loop do not create garbage.
+ * 
  * @author Armin Reichert
  */
 public class Vector2 {
 
+	// The range covers the 28x36 tiles of the maze, the tunnel beyond its borders and the targets the ghosts compute
+	// outside of the maze. The extreme ones are Inky's: twice the tile two ahead of Pac-Man minus Blinky's tile, which
+	// stays inside x = -41..64 and y = -28..64.
+
+	/** Minimum x-coordinate of interned vectors. */
+	public static final int CACHE_MIN_X = -48;
+
+	/** Maximum x-coordinate (exclusive) of interned vectors. */
+	public static final int CACHE_MAX_X = 72;
+
+	/** Minimum y-coordinate of interned vectors. */
+	public static final int CACHE_MIN_Y = -32;
+
+	/** Maximum y-coordinate (exclusive) of interned vectors. */
+	public static final int CACHE_MAX_Y = 72;
+
+	private static final int CACHE_WIDTH = CACHE_MAX_X - CACHE_MIN_X;
+
+	private static final Vector2[] CACHE = new Vector2[CACHE_WIDTH * (CACHE_MAX_Y - CACHE_MIN_Y)];
+
+	static {
+		for (int y = CACHE_MIN_Y; y < CACHE_MAX_Y; ++y) {
+			for (int x = CACHE_MIN_X; x < CACHE_MAX_X; ++x) {
+				CACHE[(y - CACHE_MIN_Y) * CACHE_WIDTH + (x - CACHE_MIN_X)] = new Vector2(x, y);
+			}
+		}
+	}
+
 	public final int x;
 	public final int y;
 
+	/**
+	 * @param x x-coordinate
+	 * @param y y-coordinate
+	 * @return the interned vector with these coordinates or a new vector if outside of the cached range
+	 */
 	public static Vector2 v(int x, int y) {
+		if (x >= CACHE_MIN_X && x < CACHE_MAX_X && y >= CACHE_MIN_Y && y < CACHE_MAX_Y) {
+			return CACHE[(y - CACHE_MIN_Y) * CACHE_WIDTH + (x - CACHE_MIN_X)];
+		}
 		return new Vector2(x, y);
 	}
 
@@ -49,7 +88,7 @@ public class Vector2 {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(x, y);
+		return 31 * x + y;
 	}
 
 	@Override
@@ -0,0 +1,103 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.lib;
+
+/**
+ * Fast, allocation-free and seedable pseudo random number generator (xorshift64*, seeded via SplitMix64).
+ * <p>
+ * Not thread-safe: each game owns its own instance, so parallel games never contend on a shared random source. The
+ * complete generator state is a single <code>long</code> which can be saved and restored.
+ * 
+ * @author Armin Reichert
+ */
+public class XorShiftRandom {
+
+	private long state;
+
+	public XorShiftRandom(long seed) {
+		setSeed(seed);
+	}
+
+	/**
+	 * Resets the generator such that it produces the sequence determined by the given seed.
+	 * 
+	 * @param seed any value including 0
+	 */
+	public void setSeed(long seed) {
+		long z = seed + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		state = z != 0 ? z : 0x9E3779B97F4A7C15L; // xorshift state must never be 0
+	}
+
+	public long getState() {
+		return state;
+	}
+
+	public void setState(long state) {
+		if (state == 0) {
+			throw new IllegalArgumentException("Random generator state must not be 0");
+		}
+		this.state = state;
+	}
+
+	public long nextLong() {
+		long x = state;
+		x ^= x >>> 12;
+		x ^= x << 25;
+		x ^= x >>> 27;
+		state = x;
+		return x * 0x2545F4914F6CDD1DL;
+	}
+
+	/**
+	 * @param bound upper bound (exclusive), must be positive
+	 * @return uniformly distributed value from <code>[0, bound)</code>
+	 */
+	public int nextInt(int bound) {
+		return (int) (((nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	/**
+	 * @return uniformly distributed value from <code>[0, 1)</code>
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Shuffles the given array in place (Fisher-Yates).
+	 * 
+	 * @param array array to shuffle
+	 */
+	public void shuffle(Object[] array) {
+		for (int i = array.length - 1; i > 0; --i) {
+			int j = nextInt(i + 1);
+			Object tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+}
@@ -24,6 +24,7 @@ SOFTWARE.
 package de.amr.yt.pacman.model;
 
 import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.StateBuffer;
 import de.amr.yt.pacman.lib.Vector2;
 
 /**
@@ -31,6 +32,8 @@ import de.amr.yt.pacman.lib.Vector2;
  */
 public abstract class Creature {
 
+	static final Direction[] DIRECTIONS = Direction.values();
+
 	/**
 	 * @param value      some value
 	 * @param exactValue the exact value
@@ -79,12 +82,61 @@ public abstract class Creature {
 		wishDir = Direction.LEFT;
 	}
 
+	void saveState(StateBuffer buffer) {
+		buffer.putFloat(x);
+		buffer.putFloat(y);
+		buffer.putFloat(speed);
+		buffer.putBoolean(enteredNewTile);
+		buffer.putBoolean(canReverse);
+		buffer.putBoolean(reverseDirection);
+		buffer.putBoolean(stuck);
+		buffer.putBoolean(visible);
+		buffer.putEnum(moveDir);
+		buffer.putEnum(wishDir);
+	}
+
+	void restoreState(StateBuffer buffer) {
+		x = buffer.getFloat();
+		y = buffer.getFloat();
+		speed = buffer.getFloat();
+		enteredNewTile = buffer.getBoolean();
+		canReverse = buffer.getBoolean();
+		reverseDirection = buffer.getBoolean();
+		stuck = buffer.getBoolean();
+		visible = buffer.getBoolean();
+		moveDir = buffer.getEnum(DIRECTIONS);
+		wishDir = buffer.getEnum(DIRECTIONS);
+	}
+
 	/**
-	 * @param tile some tile
+	 * @param row tile row
+	 * @param col tile column
 	 * @return Tells if this creature can enter the given tile in the current situation. This may depend on the creature's
 	 *         (e.g. ghost's) current state, location etc. or on the current game state.
 	 */
-	public abstract boolean canEnterTile(Vector2 tile);
+	public abstract boolean canEnterTile(int row, int col);
+
+	/**
+	 * @param tile some tile
+	 * @return Tells if this creature can enter the given tile in the current situation.
+	 */
+	public boolean canEnterTile(Vector2 tile) {
+		return canEnterTile(tile.y, tile.x);
+	}
+
+	/**
+	 * @return the move family used to look up the passable directions of a tile, see {@link World#moves(int, int, int)}
+	 */
+	protected abstract int moveFamily();
+
+	/**
+	 * @param dir some direction
+	 * @return Tells if this creature can enter the neighbor tile towards the given direction in the current situation.
+	 *         Same as <code>canEnterTile(tile().neighbor(dir))</code> but without creating any objects.
+	 */
+	public boolean canEnterNeighborTile(Direction dir) {
+		return (world.moves(row(), col(), moveFamily()) & World.dirBit(dir)) != 0;
+	}
 
 	/**
 	 * @return the current speed (in pixels per frame)
@@ -101,7 +153,7 @@ public abstract class Creature {
 	}
 
 	public Vector2 tile(float x, float y) {
-		return new Vector2(col(), row());
+		return Vector2.v(col(), row());
 	}
 
 	public int col() {
@@ -195,7 +247,7 @@ public abstract class Creature {
 		if (tile.x < 0 || tile.x >= World.COLS) {
 			// when teleporting, we cannot move sidewards
 			canMove = currentDir == newDir || currentDir == newDir.opposite();
-		} else if (canEnterTile(tile.neighbor(newDir))) {
+		} else if (canEnterNeighborTile(newDir)) {
 			// check if accessible neighbor tile can be entered now
 			if (newDir == currentDir || newDir == currentDir.opposite()) {
 				canMove = true;
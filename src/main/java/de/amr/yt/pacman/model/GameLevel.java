@@ -23,7 +23,7 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.model;
 
-import static de.amr.yt.pacman.lib.GameClock.sec;
+import de.amr.yt.pacman.lib.GameClock;
 
 /**
  * @author Armin Reichert
@@ -48,7 +48,7 @@ public class GameLevel {
 
 	public int ghostsKilled;
 
-	public GameLevel(int levelNumber, Object... data) {
+	public GameLevel(GameClock clock, int levelNumber, Object... data) {
 		number = levelNumber;
 		bonusSymbol = (int) data[0];
 		bonusValue = (int) data[1];
@@ -66,16 +66,16 @@ public class GameLevel {
 
 		switch (levelNumber) {
 		case 1 -> {
-			scatterStartTicks = new long[] { 0, sec(27), sec(54), sec(79) };
-			chaseStartTicks = new long[] { sec(7), sec(34), sec(59), sec(84) };
+			scatterStartTicks = new long[] { 0, clock.sec(27), clock.sec(54), clock.sec(79) };
+			chaseStartTicks = new long[] { clock.sec(7), clock.sec(34), clock.sec(59), clock.sec(84) };
 		}
 		case 2, 3, 4 -> {
-			scatterStartTicks = new long[] { 0, sec(27), sec(54), sec(1092) };
-			chaseStartTicks = new long[] { sec(7), sec(34), sec(59), sec(1092) + 1 };
+			scatterStartTicks = new long[] { 0, clock.sec(27), clock.sec(54), clock.sec(1092) };
+			chaseStartTicks = new long[] { clock.sec(7), clock.sec(34), clock.sec(59), clock.sec(1092) + 1 };
 		}
 		default -> {
-			scatterStartTicks = new long[] { 0, sec(25), sec(50), sec(1092) };
-			chaseStartTicks = new long[] { sec(5), sec(30), sec(55), sec(1092) + 1 };
+			scatterStartTicks = new long[] { 0, clock.sec(25), clock.sec(50), clock.sec(1092) };
+			chaseStartTicks = new long[] { clock.sec(5), clock.sec(30), clock.sec(55), clock.sec(1092) + 1 };
 		}
 		}
 	}
@@ -23,28 +23,24 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.model;
 
-import static de.amr.yt.pacman.lib.GameClock.sec;
+import static de.amr.yt.pacman.lib.Logging.debug;
 import static de.amr.yt.pacman.lib.Vector2.v;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import de.amr.yt.pacman.lib.Direction;
 import de.amr.yt.pacman.lib.GameClock;
 import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.StateBuffer;
 import de.amr.yt.pacman.lib.Vector2;
+import de.amr.yt.pacman.lib.XorShiftRandom;
 
 /**
  * @author Armin Reichert
  */
 public class GameModel {
 
-	private static final Logger logger = LogManager.getFormatterLogger();
-
 	/** Speed in pixels/tick at 100%. */
 	public static final float BASE_SPEED = 1.25f;
 
@@ -54,6 +50,9 @@ public class GameModel {
 	public final Direction[] ghostStartDirections = { Direction.LEFT, Direction.DOWN, Direction.UP, Direction.UP };
 	public final Vector2 bonusTile = v(13, 20);
 
+	public final GameClock clock;
+	/** Source of all randomness in the game, same seed and same input produce the same game. */
+	public final XorShiftRandom random;
 	public final World world;
 	public final List<Integer> levelCounter = new ArrayList<>();
 	public final PacMan pacMan;
@@ -62,9 +61,19 @@ public class GameModel {
 
 	public GameLevel level;
 	public long attackTimer;
+	/**
+	 * Ticks since state PLAYING has been entered, counting the tick in which it was entered like the state timer does.
+	 * Locked ghosts are released depending on this timer.
+	 */
+	public long playingTimer;
 
 	public volatile boolean paused;
 	public volatile boolean pacSafe;
+	/**
+	 * If <code>true</code>, eaten ghosts return to the house on a shortest path (see
+	 * {@link World#homeDirection(int, int, Direction)}) instead of chasing the house entry like in the Arcade game.
+	 */
+	public boolean shortestPathHome;
 	public boolean levelStarted;
 	public boolean chasingPhase;
 	public boolean mazeFlashing;
@@ -75,7 +84,20 @@ public class GameModel {
 	public int ghostsKilledByEnergizer;
 	public int pacManLosingPowerTicks = 120; // TODO just a guess
 
+	private long seed;
+
 	public GameModel() {
+		this(new GameClock());
+	}
+
+	public GameModel(GameClock clock) {
+		this(clock, System.nanoTime());
+	}
+
+	public GameModel(GameClock clock, long seed) {
+		this.clock = clock;
+		this.seed = seed;
+		random = new XorShiftRandom(seed);
 		world = new World();
 		pacMan = new PacMan(this);
 		ghosts = new Ghost[] { //
@@ -88,46 +110,153 @@ public class GameModel {
 	}
 
 	public void setLevel(int levelNumber) {
+		level = createLevel(levelNumber);
+		if (levelNumber == 1) {
+			score = 0;
+			lives = 3;
+			levelCounter.clear();
+		}
+		levelCounter.add(level.bonusSymbol);
+		if (levelCounter.size() == 8) {
+			levelCounter.remove(0);
+		}
+
+		debug("Game level %d created", level.number);
+	}
+
+	private GameLevel createLevel(int levelNumber) {
 		if (levelNumber < 1) {
 			throw new IllegalArgumentException("Level number must be at least 1");
 		}
-		level = switch (levelNumber) {
+		return switch (levelNumber) {
 		//@formatter:off
-		case  1 -> new GameLevel(levelNumber, Bonus.CHERRIES,    100, 0.80f, 0.75f, 0.40f,  20, 0.80f, 10, 0.85f, 0.90f, 0.50f, 6, 5);
-		case  2 -> new GameLevel(levelNumber, Bonus.STRAWBERRY,  300, 0.90f, 0.85f, 0.45f,  30, 0.90f, 15, 0.95f, 0.95f, 0.55f, 5, 5);
-		case  3 -> new GameLevel(levelNumber, Bonus.PEACH,       500, 0.90f, 0.85f, 0.45f,  40, 0.90f, 20, 0.95f, 0.95f, 0.55f, 4, 5);
-		case  4 -> new GameLevel(levelNumber, Bonus.PEACH,       500, 0.90f, 0.85f, 0.45f,  40, 0.90f, 20, 0.95f, 0.95f, 0.55f, 3, 5);
-		case  5 -> new GameLevel(levelNumber, Bonus.APPLE,       700, 1.00f, 0.95f, 0.50f,  40, 1.00f, 20, 1.05f, 1.00f, 0.60f, 2, 5);
-		case  6 -> new GameLevel(levelNumber, Bonus.APPLE,       700, 1.00f, 0.95f, 0.50f,  50, 1.00f, 25, 1.05f, 1.00f, 0.60f, 5, 5);
+		case  1 -> new GameLevel(clock, levelNumber, Bonus.CHERRIES,    100, 0.80f, 0.75f, 0.40f,  20, 0.80f, 10, 0.85f, 0.90f, 0.50f, 6, 5);
+		case  2 -> new GameLevel(clock, levelNumber, Bonus.STRAWBERRY,  300, 0.90f, 0.85f, 0.45f,  30, 0.90f, 15, 0.95f, 0.95f, 0.55f, 5, 5);
+		case  3 -> new GameLevel(clock, levelNumber, Bonus.PEACH,       500, 0.90f, 0.85f, 0.45f,  40, 0.90f, 20, 0.95f, 0.95f, 0.55f, 4, 5);
+		case  4 -> new GameLevel(clock, levelNumber, Bonus.PEACH,       500, 0.90f, 0.85f, 0.45f,  40, 0.90f, 20, 0.95f, 0.95f, 0.55f, 3, 5);
+		case  5 -> new GameLevel(clock, levelNumber, Bonus.APPLE,       700, 1.00f, 0.95f, 0.50f,  40, 1.00f, 20, 1.05f, 1.00f, 0.60f, 2, 5);
+		case  6 -> new GameLevel(clock, levelNumber, Bonus.APPLE,       700, 1.00f, 0.95f, 0.50f,  50, 1.00f, 25, 1.05f, 1.00f, 0.60f, 5, 5);
 		case  7, 
-		      8 -> new GameLevel(levelNumber, Bonus.GRAPES,     1000, 1.00f, 0.95f, 0.50f,  50, 1.00f, 25, 1.05f, 1.00f, 0.60f, 2, 5);
-		case  9 -> new GameLevel(levelNumber, Bonus.GALAXIAN,   2000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 1, 3);
-		case 10 -> new GameLevel(levelNumber, Bonus.GALAXIAN,   2000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 5, 5);
-		case 11 -> new GameLevel(levelNumber, Bonus.BELL,       3000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 2, 5);
-		case 12 -> new GameLevel(levelNumber, Bonus.BELL,       3000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 1, 3);
-		case 13 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 1, 3);
-		case 14 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 3, 5);
+		      8 -> new GameLevel(clock, levelNumber, Bonus.GRAPES,     1000, 1.00f, 0.95f, 0.50f,  50, 1.00f, 25, 1.05f, 1.00f, 0.60f, 2, 5);
+		case  9 -> new GameLevel(clock, levelNumber, Bonus.GALAXIAN,   2000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 1, 3);
+		case 10 -> new GameLevel(clock, levelNumber, Bonus.GALAXIAN,   2000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 5, 5);
+		case 11 -> new GameLevel(clock, levelNumber, Bonus.BELL,       3000, 1.00f, 0.95f, 0.50f,  60, 1.00f, 30, 1.05f, 1.00f, 0.60f, 2, 5);
+		case 12 -> new GameLevel(clock, levelNumber, Bonus.BELL,       3000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 1, 3);
+		case 13 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 1, 3);
+		case 14 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f,  80, 1.00f, 40, 1.05f, 1.00f, 0.60f, 3, 5);
 		case 15, 
-		     16 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 1.00f, 0.60f, 1, 3);
-		case 17 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 0.00f, 0.00f, 0, 0);
-		case 18 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 1.00f, 0.60f, 1, 3);
+		     16 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 1.00f, 0.60f, 1, 3);
+		case 17 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 0.00f, 0.00f, 0, 0);
+		case 18 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 100, 1.00f, 50, 1.05f, 1.00f, 0.60f, 1, 3);
 		case 19, 
-		     20 -> new GameLevel(levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 120, 1.00f, 60, 1.05f, 0.00f, 0.00f, 0, 0);
-		default -> new GameLevel(levelNumber, Bonus.KEY,        5000, 0.90f, 0.95f, 0.50f, 120, 1.00f, 60, 1.05f, 0.00f, 0.00f, 0, 0);
+		     20 -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 1.00f, 0.95f, 0.50f, 120, 1.00f, 60, 1.05f, 0.00f, 0.00f, 0, 0);
+		default -> new GameLevel(clock, levelNumber, Bonus.KEY,        5000, 0.90f, 0.95f, 0.50f, 120, 1.00f, 60, 1.05f, 0.00f, 0.00f, 0, 0);
 		//@formatter:on
 		};
+	}
 
-		if (levelNumber == 1) {
-			score = 0;
-			lives = 3;
-			levelCounter.clear();
+	public long seed() {
+		return seed;
+	}
+
+	/**
+	 * Restarts the random number sequence of this game.
+	 * 
+	 * @param seed the new seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Saves the complete simulation state (food, creatures, bonus, level, score, random generator etc.) into the given
+	 * buffer. Animations, the pause state and the clock are not part of the simulation state.
+	 * 
+	 * @param buffer buffer receiving the state, reuse it to avoid garbage
+	 */
+	public void saveState(StateBuffer buffer) {
+		buffer.clear();
+		buffer.putInt(level.number);
+		buffer.putInt(level.ghostsKilled);
+		buffer.putLong(attackTimer);
+		buffer.putLong(playingTimer);
+		buffer.putLong(seed);
+		buffer.putLong(random.getState());
+		buffer.putBoolean(pacSafe);
+		buffer.putBoolean(shortestPathHome);
+		buffer.putBoolean(levelStarted);
+		buffer.putBoolean(chasingPhase);
+		buffer.putBoolean(mazeFlashing);
+		buffer.putBoolean(powerPelletsBlinking);
+		buffer.putInt(score);
+		buffer.putInt(lives);
+		buffer.putInt(ghostsKilledByEnergizer);
+		buffer.putInt(pacManLosingPowerTicks);
+		buffer.putInt(levelCounter.size());
+		for (int i = 0; i < levelCounter.size(); ++i) {
+			buffer.putInt(levelCounter.get(i));
 		}
-		levelCounter.add(level.bonusSymbol);
-		if (levelCounter.size() == 8) {
-			levelCounter.remove(0);
+		buffer.putBoolean(bonus != null);
+		if (bonus != null) {
+			buffer.putInt(bonus.symbol);
+			buffer.putInt(bonus.value);
+			buffer.putInt(bonus.timer);
+			buffer.putBoolean(bonus.eaten);
+		}
+		world.saveState(buffer);
+		pacMan.saveState(buffer);
+		for (var ghost : ghosts) {
+			ghost.saveState(buffer);
 		}
+	}
 
-		logger.info("Game level %d created", level.number);
+	/**
+	 * Restores the simulation state saved by {@link #saveState(StateBuffer)}. No objects are created unless the level
+	 * or the bonus differ from the current ones.
+	 * 
+	 * @param buffer buffer containing the state
+	 */
+	public void restoreState(StateBuffer buffer) {
+		buffer.rewind();
+		int levelNumber = buffer.getInt();
+		if (level.number != levelNumber) {
+			level = createLevel(levelNumber);
+		}
+		level.ghostsKilled = buffer.getInt();
+		attackTimer = buffer.getLong();
+		playingTimer = buffer.getLong();
+		seed = buffer.getLong();
+		random.setState(buffer.getLong());
+		pacSafe = buffer.getBoolean();
+		shortestPathHome = buffer.getBoolean();
+		levelStarted = buffer.getBoolean();
+		chasingPhase = buffer.getBoolean();
+		mazeFlashing = buffer.getBoolean();
+		powerPelletsBlinking = buffer.getBoolean();
+		score = buffer.getInt();
+		lives = buffer.getInt();
+		ghostsKilledByEnergizer = buffer.getInt();
+		pacManLosingPowerTicks = buffer.getInt();
+		levelCounter.clear();
+		for (int n = buffer.getInt(); n > 0; --n) {
+			levelCounter.add(buffer.getInt());
+		}
+		if (buffer.getBoolean()) {
+			int symbol = buffer.getInt(), value = buffer.getInt();
+			if (bonus == null || bonus.symbol != symbol || bonus.value != value) {
+				bonus = new Bonus(symbol, value);
+			}
+			bonus.timer = buffer.getInt();
+			bonus.eaten = buffer.getBoolean();
+		} else {
+			bonus = null;
+		}
+		world.restoreState(buffer);
+		pacMan.restoreState(buffer);
+		for (var ghost : ghosts) {
+			ghost.restoreState(buffer);
+		}
 	}
 
 	public synchronized void reset() {
@@ -204,6 +333,67 @@ public class GameModel {
 		}
 	}
 
+	/**
+	 * Updates the model by one tick of game state PLAYING. Called after {@link #updateAttackWave()} and the steering
+	 * have been asked for Pac-Man's direction. Used by the game state machine and by simulations running ahead of the
+	 * game.
+	 * 
+	 * @param wishDir the direction requested for Pac-Man or <code>null</code>
+	 * @return the event ending state PLAYING in this tick or {@link PlayingEvent#NONE}
+	 */
+	public PlayingEvent updatePlaying(Direction wishDir) {
+		long timer = ++playingTimer;
+		if (wishDir != null) {
+			pacMan.wishDir = wishDir;
+		}
+		pacMan.update();
+		checkPelletEaten();
+		checkPowerPelletEaten();
+		checkBonusEaten();
+		if (checkAllPelletsEaten()) {
+			return PlayingEvent.ALL_PELLETS_EATEN;
+		}
+		if (checkPacManKilledByGhost(pacMan.tile())) {
+			return PlayingEvent.PACMAN_KILLED;
+		}
+		if (checkGhostKilledByPacMan()) {
+			return PlayingEvent.GHOST_KILLED;
+		}
+		unlockGhosts(timer);
+		for (var ghost : ghosts) {
+			ghost.update();
+		}
+		updateBonus();
+		return PlayingEvent.NONE;
+	}
+
+	// TODO this is just some arbitrary sample logic, the real game uses dot counters and stuff
+	private void unlockGhosts(long timer) {
+		for (var ghost : ghosts) {
+			int unlockSeconds = switch (ghost.id) {
+			case Ghost.BLINKY -> 0;
+			case Ghost.PINKY -> 1;
+			case Ghost.INKY -> 5;
+			case Ghost.CLYDE -> 15;
+			default -> 0;
+			};
+			if (ghost.state == GhostState.LOCKED && timer >= clock.sec(unlockSeconds)) {
+				ghost.state = ghost.id == Ghost.BLINKY ? GhostState.SCATTERING : GhostState.LEAVING_HOUSE;
+			}
+		}
+	}
+
+	/**
+	 * Updates the ghosts returning to the ghost house while the game is frozen after a ghost has been killed.
+	 */
+	public void updateEatenGhosts() {
+		for (var ghost : ghosts) {
+			if (ghost.state == GhostState.EATEN) {
+				ghost.update();
+			}
+		}
+	}
+
 	private void startScatteringPhase(int phase) {
 		for (var ghost : ghosts) {
 			if (ghost.state == GhostState.CHASING) {
@@ -212,7 +402,7 @@ public class GameModel {
 			}
 			chasingPhase = false;
 		}
-		logger.info("Scatter phase %d started at %s", phase + 1, GameClock.get());
+		debug("Scatter phase %d started at %s", phase + 1, clock);
 	}
 
 	private void startChasingPhase(int phase) {
@@ -223,7 +413,7 @@ public class GameModel {
 			}
 			chasingPhase = true;
 		}
-		logger.info("Chasing phase %d started at %s", phase + 1, GameClock.get());
+		debug("Chasing phase %d started at %s", phase + 1, clock);
 	}
 
 	public void onPacPowerEnding() {
@@ -250,7 +440,7 @@ public class GameModel {
 	public boolean checkPowerPelletEaten() {
 		if (world.consumePowerPelletAt(pacMan.tile())) {
 			pacMan.state = PacManState.POWER;
-			pacMan.powerCountdown = sec(level.ghostFrightenedSeconds);
+			pacMan.powerCountdown = clock.sec(level.ghostFrightenedSeconds);
 			pacMan.restCountdown = 3;
 			score(50);
 			checkBonusAwarded();
@@ -262,7 +452,7 @@ public class GameModel {
 					ghost.reverseDirection = true;
 				}
 			}
-			logger.info("Pac-Man gets power for %d ticks", pacMan.powerCountdown);
+			debug("Pac-Man gets power for %d ticks", pacMan.powerCountdown);
 			return true;
 		}
 		return false;
@@ -284,7 +474,7 @@ public class GameModel {
 	public boolean checkBonusAwarded() {
 		if (world.eatenFoodCount == 70 || world.eatenFoodCount == 170) {
 			bonus = new Bonus(level.bonusSymbol, level.bonusValue);
-			bonus.timer = sec(9 + new Random().nextDouble());
+			bonus.timer = clock.sec(9 + random.nextDouble());
 			return true;
 		}
 		return false;
@@ -292,7 +482,7 @@ public class GameModel {
 
 	public boolean checkBonusEaten() {
 		if (bonus != null && !bonus.eaten && pacMan.tile().equals(bonusTile)) {
-			bonus.timer = sec(2);
+			bonus.timer = clock.sec(2);
 			bonus.eaten = true;
 			score(bonus.value);
 			return true;
@@ -328,7 +518,7 @@ public class GameModel {
 					score += 12000;
 				}
 				ghost.state = GhostState.EATEN;
-				ghost.valueTimer = sec(1);
+				ghost.valueTimer = clock.sec(1);
 				ghost.value = (int) Math.pow(2, ghostsKilledByEnergizer) * 100;
 				score += ghost.value;
 			}
@@ -27,12 +27,13 @@ import static de.amr.yt.pacman.lib.Direction.DOWN;
 import static de.amr.yt.pacman.lib.Direction.LEFT;
 import static de.amr.yt.pacman.lib.Direction.RIGHT;
 import static de.amr.yt.pacman.lib.Direction.UP;
-import static de.amr.yt.pacman.lib.Logging.log;
+import static de.amr.yt.pacman.lib.Logging.debug;
 import static de.amr.yt.pacman.lib.Vector2.v;
 import static de.amr.yt.pacman.model.World.t;
 
 import de.amr.yt.pacman.lib.AnimationMap;
 import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.StateBuffer;
 import de.amr.yt.pacman.lib.Vector2;
 
 /**
@@ -47,6 +48,7 @@ public class Ghost extends Creature {
 	public static final int BLINKY = 0, PINKY = 1, INKY = 2, CLYDE = 3;
 
 	private static final Direction[] DIR_ORDER = { UP, LEFT, DOWN, RIGHT };
+	private static final GhostState[] STATES = GhostState.values();
 
 	public final int id;
 	public final GameModel game;
@@ -60,6 +62,8 @@ public class Ghost extends Creature {
 
 	public final AnimationMap<AnimationKey> animations = new AnimationMap<>(AnimationKey.class);
 
+	private final Direction[] shuffledDirections = Direction.values();
+
 	public Ghost(GameModel game, int id) {
 		super(game.world);
 		this.game = game;
@@ -69,7 +73,7 @@ public class Ghost extends Creature {
 
 	public void selectAnimation(AnimationKey key) {
 		if (animations.select(key)) {
-			log("Select animation '%s' for %s", animations.selected(), this);
+			debug("Select animation '%s' for %s", animations.selected(), this);
 		}
 	}
 
@@ -84,6 +88,43 @@ public class Ghost extends Creature {
 		value = 0;
 	}
 
+	@Override
+	void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		buffer.putEnum(state);
+		buffer.putInt(elroyState);
+		buffer.putBoolean(targetTile != null);
+		if (targetTile != null) {
+			buffer.putInt(targetTile.x);
+			buffer.putInt(targetTile.y);
+		}
+		buffer.putLong(valueTimer);
+		buffer.putInt(value);
+		for (Direction dir : shuffledDirections) {
+			buffer.putEnum(dir);
+		}
+	}
+
+	@Override
+	void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		state = buffer.getEnum(STATES);
+		elroyState = buffer.getInt();
+		if (buffer.getBoolean()) {
+			int tx = buffer.getInt(), ty = buffer.getInt();
+			if (targetTile == null || !targetTile.equals(tx, ty)) {
+				targetTile = v(tx, ty);
+			}
+		} else {
+			targetTile = null;
+		}
+		valueTimer = buffer.getLong();
+		value = buffer.getInt();
+		for (int i = 0; i < shuffledDirections.length; ++i) {
+			shuffledDirections[i] = buffer.getEnum(DIRECTIONS);
+		}
+	}
+
 	public void update() {
 		switch (state) {
 		case LOCKED -> {
@@ -140,22 +181,42 @@ public class Ghost extends Creature {
 	}
 
 	@Override
-	public boolean canEnterTile(Vector2 tile) {
-		if (world.isBlocked(tile)) {
+	public boolean canEnterTile(int row, int col) {
+		int flags = world.flags(row, col);
+		if ((flags & World.F_WALL) != 0) {
 			return false;
 		}
-		if (world.isGhostHouse(tile)) {
-			return state == GhostState.ENTERING_HOUSE || state == GhostState.LEAVING_HOUSE || state == GhostState.LOCKED;
+		if ((flags & World.F_HOUSE) != 0) {
+			return moveFamily() == World.GHOST_IN_HOUSE;
+		}
+		if (wishDir == UP && (flags & World.F_ONE_WAY_DOWN) != 0) {
+			return state == GhostState.FRIGHTENED || state == GhostState.EATEN;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean canEnterNeighborTile(Direction dir) {
+		if (!super.canEnterNeighborTile(dir)) {
+			return false;
 		}
-		if (wishDir == UP && world.isOneWayDown(tile)) {
+		if (wishDir == UP && (world.flags(row() + dir.vector.y, col() + dir.vector.x) & World.F_ONE_WAY_DOWN) != 0) {
 			return state == GhostState.FRIGHTENED || state == GhostState.EATEN;
 		}
 		return true;
 	}
 
+	@Override
+	protected int moveFamily() {
+		return switch (state) {
+		case ENTERING_HOUSE, LEAVING_HOUSE, LOCKED -> World.GHOST_IN_HOUSE;
+		default -> World.GHOST;
+		};
+	}
+
 	@Override
 	public float currentSpeed() {
-		boolean tunnel = game.world.isTunnel(tile());
+		boolean tunnel = world.isTunnel(row(), col());
 		return switch (state) {
 		case CHASING, SCATTERING -> tunnel ? game.level.ghostSpeedTunnel : chasingOrScatteringSpeed();
 		case EATEN -> 2 * game.level.ghostSpeed; // TODO guess
@@ -177,20 +238,59 @@ public class Ghost extends Creature {
 	}
 
 	private void takeDirectionTowardsTarget() {
-		double minDist = Double.MAX_VALUE;
-		for (Direction direction : DIR_ORDER) {
-			if (direction == moveDir.opposite()) {
+		if (state == GhostState.EATEN && game.shortestPathHome) {
+			Direction homeDir = world.homeDirection(row(), col(), moveDir);
+			if (homeDir != null) {
+				wishDir = homeDir;
+				return;
+			}
+		}
+		wishDir = directionTowards(targetTile.x, targetTile.y);
+	}
+
+	/**
+	 * Decides which direction to take at the current tile for reaching the given target tile: the direction not
+	 * reversing the move direction whose neighbor tile is nearest to the target, ties are broken in the order UP, LEFT,
+	 * DOWN, RIGHT (as in the Arcade game).
+	 * <p>
+	 * The candidates come from the precomputed move table of the world, so outside of intersections there is at most one
+	 * and no distance is computed at all. Distances are compared as integer squares. Like the original search, the
+	 * one-way check of a candidate depends on the wish direction chosen so far.
+	 * 
+	 * @param targetX target tile x
+	 * @param targetY target tile y
+	 * @return the direction to take or the current wish direction if no neighbor tile can be entered
+	 */
+	public Direction directionTowards(int targetX, int targetY) {
+		int row = row(), col = col();
+		int candidates = world.moves(row, col, moveFamily()) & ~World.dirBit(moveDir.opposite());
+		boolean oneWayAllowed = state == GhostState.FRIGHTENED || state == GhostState.EATEN;
+		Direction choice = wishDir;
+		if (Integer.bitCount(candidates) == 1) {
+			Direction dir = DIRECTIONS[Integer.numberOfTrailingZeros(candidates)];
+			return oneWayAllowed || choice != UP || !isOneWayDown(row + dir.vector.y, col + dir.vector.x) ? dir : choice;
+		}
+		int minDist = Integer.MAX_VALUE;
+		for (Direction dir : DIR_ORDER) {
+			if ((candidates & World.dirBit(dir)) == 0) {
 				continue;
 			}
-			Vector2 neighbor = tile().neighbor(direction);
-			if (canEnterTile(neighbor)) {
-				double dist = neighbor.euclideanDist(targetTile);
-				if (dist < minDist) {
-					minDist = dist;
-					wishDir = direction;
-				}
+			int neighborRow = row + dir.vector.y, neighborCol = col + dir.vector.x;
+			if (!oneWayAllowed && choice == UP && isOneWayDown(neighborRow, neighborCol)) {
+				continue;
+			}
+			int dx = neighborCol - targetX, dy = neighborRow - targetY;
+			int dist = dx * dx + dy * dy;
+			if (dist < minDist) {
+				minDist = dist;
+				choice = dir;
 			}
 		}
+		return choice;
+	}
+
+	private boolean isOneWayDown(int row, int col) {
+		return (world.flags(row, col) & World.F_ONE_WAY_DOWN) != 0;
 	}
 
 	private Vector2 targetTile() {
@@ -219,13 +319,13 @@ public class Ghost extends Creature {
 	}
 
 	private Vector2 randomAllowedNeighborTile() {
-		for (Direction direction : Direction.valuesShuffled()) {
+		game.random.shuffle(shuffledDirections);
+		for (Direction direction : shuffledDirections) {
 			if (direction == moveDir.opposite()) {
 				continue;
 			}
-			Vector2 neighbor = tile().neighbor(direction);
-			if (canEnterTile(neighbor)) {
-				return neighbor;
+			if (canEnterNeighborTile(direction)) {
+				return tile().neighbor(direction);
 			}
 		}
 		return null;
@@ -249,7 +349,10 @@ public class Ghost extends Creature {
 			}
 			yield pacPlus2.times(2).minus(game.ghosts[BLINKY].tile());
 		}
-		case CLYDE -> tile().euclideanDist(pacMan.tile()) < 8 ? game.ghostScatterTargets[CLYDE] : pacMan.tile();
+		case CLYDE -> {
+			int dx = col() - pacMan.col(), dy = row() - pacMan.row();
+			yield dx * dx + dy * dy < 64 ? game.ghostScatterTargets[CLYDE] : pacMan.tile();
+		}
 		default -> null;
 		};
 	}
@@ -23,10 +23,10 @@ SOFTWARE.
 */
 package de.amr.yt.pacman.model;
 
-import static de.amr.yt.pacman.lib.Logging.log;
+import static de.amr.yt.pacman.lib.Logging.debug;
 
 import de.amr.yt.pacman.lib.AnimationMap;
-import de.amr.yt.pacman.lib.Vector2;
+import de.amr.yt.pacman.lib.StateBuffer;
 
 /**
  * @author Armin Reichert
@@ -37,6 +37,8 @@ public class PacMan extends Creature {
 		STANDING, WALKING, DYING
 	};
 
+	private static final PacManState[] STATES = PacManState.values();
+
 	public final AnimationMap<AnimationKey> animations = new AnimationMap<>(AnimationKey.class);
 
 	public final GameModel game;
@@ -52,7 +54,7 @@ public class PacMan extends Creature {
 
 	public void selectAnimation(AnimationKey animationKey) {
 		if (animations.select(animationKey)) {
-			log("Select animation '%s' for %s", animations.selected(), this);
+			debug("Select animation '%s' for %s", animations.selected(), this);
 		}
 	}
 
@@ -65,6 +67,22 @@ public class PacMan extends Creature {
 		restCountdown = 0;
 	}
 
+	@Override
+	void saveState(StateBuffer buffer) {
+		super.saveState(buffer);
+		buffer.putEnum(state);
+		buffer.putInt(powerCountdown);
+		buffer.putInt(restCountdown);
+	}
+
+	@Override
+	void restoreState(StateBuffer buffer) {
+		super.restoreState(buffer);
+		state = buffer.getEnum(STATES);
+		powerCountdown = buffer.getInt();
+		restCountdown = buffer.getInt();
+	}
+
 	private void restOrWalk() {
 		if (restCountdown > 0) {
 			--restCountdown;
@@ -98,8 +116,13 @@ public class PacMan extends Creature {
 	}
 
 	@Override
-	public boolean canEnterTile(Vector2 tile) {
-		return !world.isBlocked(tile) && !world.isGhostHouse(tile);
+	public boolean canEnterTile(int row, int col) {
+		return (world.flags(row, col) & (World.F_WALL | World.F_HOUSE)) == 0;
+	}
+
+	@Override
+	protected int moveFamily() {
+		return World.PAC_MAN;
 	}
 
 	@Override
@@ -25,7 +25,10 @@ package de.amr.yt.pacman.model;
 
 import static de.amr.yt.pacman.lib.Vector2.v;
 
+import java.util.Arrays;
+
 import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.StateBuffer;
 import de.amr.yt.pacman.lib.Vector2;
 
 /**
@@ -45,15 +48,41 @@ public class World {
 	public static final byte TUNNEL          = 2;
 	public static final byte PELLET          = 3;
 	public static final byte ENERGIZER       = 4;
-	public static final byte PELLET_EATEN    = 5;
-	public static final byte ENERGIZER_EATEN = 6;
+	//@formatter:on
+
+	//@formatter:off
+	/** Tile flag: wall */
+	public static final int F_WALL          = 1;
+	/** Tile flag: tunnel */
+	public static final int F_TUNNEL        = 1 << 1;
+	/** Tile flag: inside ghost house */
+	public static final int F_HOUSE         = 1 << 2;
+	/** Tile flag: ghosts may not move upwards into this tile (unless frightened or eaten) */
+	public static final int F_ONE_WAY_DOWN  = 1 << 3;
+	/** Tile flag: at least 3 neighbor tiles are not blocked */
+	public static final int F_WAYPOINT      = 1 << 4;
+
+	/** Move family: Pac-Man */
+	public static final int PAC_MAN         = 0;
+	/** Move family: ghost outside of ghost house (chasing, scattering, frightened, eaten) */
+	public static final int GHOST           = 1;
+	/** Move family: ghost allowed to enter the ghost house (locked, leaving house, entering house) */
+	public static final int GHOST_IN_HOUSE  = 2;
 	//@formatter:on
 
 	public static int t(int n) {
 		return n * TS;
 	}
 
-	private byte[][] map = {
+	/**
+	 * @param dir direction
+	 * @return bit representing the direction in a direction mask
+	 */
+	public static int dirBit(Direction dir) {
+		return 1 << dir.ordinal();
+	}
+
+	private static final byte[][] MAP = {
 		//@formatter:off
 		{1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,},
 		{1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,},
@@ -94,64 +123,368 @@ public class World {
 		//@formatter:on
 	};
 
-	/** Left house entry tile */
-	public final Vector2 houseEntryTile = v(13, 14);
-	/** Pixel position of house entry */
-	public final Vector2 houseEntry = v(t(14), t(14) + World.HT);
-	public final float houseTop = t(17);
-	public final float houseBottom = t(18);
+	private static final Direction[] DIRECTIONS = Direction.values();
 
-	public final int totalFoodCount;
-	public int eatenFoodCount;
+	/** Flags of each tile (index: row * COLS + col) */
+	private static final byte[] TILE_FLAGS = new byte[ROWS * COLS];
 
-	public World() {
-		int count = 0;
+	/** Directions in which the neighbor tile can be entered, per move family and tile */
+	private static final byte[][] MOVES = new byte[3][ROWS * COLS];
+
+	static {
+		for (int row = 0; row < ROWS; ++row) {
+			for (int col = 0; col < COLS; ++col) {
+				TILE_FLAGS[row * COLS + col] = (byte) computeFlags(row, col);
+			}
+		}
+		for (int row = 0; row < ROWS; ++row) {
+			for (int col = 0; col < COLS; ++col) {
+				int freeNeighbors = 0;
+				for (Direction dir : DIRECTIONS) {
+					int flags = flagsAt(row + dir.vector.y, col + dir.vector.x);
+					if ((flags & F_WALL) == 0) {
+						++freeNeighbors;
+						MOVES[GHOST_IN_HOUSE][row * COLS + col] |= dirBit(dir);
+						if ((flags & F_HOUSE) == 0) {
+							MOVES[PAC_MAN][row * COLS + col] |= dirBit(dir);
+							MOVES[GHOST][row * COLS + col] |= dirBit(dir);
+						}
+					}
+				}
+				if (freeNeighbors >= 3) {
+					TILE_FLAGS[row * COLS + col] |= F_WAYPOINT;
+				}
+			}
+		}
+	}
+
+	/** Start tile of Pac-Man, see {@link GameModel#pacManHome} */
+	private static final int PAC_MAN_HOME_ROW = 26, PAC_MAN_HOME_COL = 13;
+
+	/**
+	 * Shortest path distances between all tiles Pac-Man can walk on, that is all tiles reachable from its start tile
+	 * (the empty pockets outside of the maze are not). Computed by a breadth-first search from each of these tiles when
+	 * first needed. Moves through the tunnel wrap around to the other side of the map.
+	 */
+	private static class Distances {
+
+		/** Node number of each tile (index: row * COLS + col), -1 if the tile is not walkable */
+		static final short[] NODES = new short[ROWS * COLS];
+
+		/** Tile index of each node */
+		static final short[] TILES;
+
+		/** Distance in tiles between each pair of nodes (index: from * TILES.length + to) */
+		static final short[] DIST;
+
+		static {
+			// flood fill from the start tile of Pac-Man
+			boolean[] reachable = new boolean[ROWS * COLS];
+			int[] queue = new int[ROWS * COLS];
+			int head = 0, tail = 0;
+			queue[tail++] = PAC_MAN_HOME_ROW * COLS + PAC_MAN_HOME_COL;
+			reachable[queue[0]] = true;
+			while (head < tail) {
+				int tile = queue[head++];
+				for (Direction dir : DIRECTIONS) {
+					int neighbor = neighborTile(tile, dir);
+					if (neighbor != -1 && !reachable[neighbor]) {
+						reachable[neighbor] = true;
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+			int numNodes = 0;
+			for (int i = 0; i < ROWS * COLS; ++i) {
+				NODES[i] = reachable[i] ? (short) numNodes++ : -1;
+			}
+			TILES = new short[numNodes];
+			for (int i = 0; i < ROWS * COLS; ++i) {
+				if (NODES[i] != -1) {
+					TILES[NODES[i]] = (short) i;
+				}
+			}
+			DIST = new short[numNodes * numNodes];
+			Arrays.fill(DIST, (short) -1);
+			for (int source = 0; source < numNodes; ++source) {
+				int offset = source * numNodes;
+				head = tail = 0;
+				DIST[offset + source] = 0;
+				queue[tail++] = source;
+				while (head < tail) {
+					int node = queue[head++];
+					for (Direction dir : DIRECTIONS) {
+						int neighbor = neighbor(node, dir);
+						if (neighbor != -1 && DIST[offset + neighbor] == -1) {
+							DIST[offset + neighbor] = (short) (DIST[offset + node] + 1);
+							queue[tail++] = neighbor;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return index of the tile reached by Pac-Man moving from the given tile into the given direction or -1 if this
+		 *         move is not possible
+		 */
+		static int neighborTile(int tile, Direction dir) {
+			if ((MOVES[PAC_MAN][tile] & dirBit(dir)) == 0) {
+				return -1;
+			}
+			int row = tile / COLS + dir.vector.y, col = Math.floorMod(tile % COLS + dir.vector.x, COLS);
+			return inRange(0, ROWS - 1, row) ? row * COLS + col : -1;
+		}
+
+		/**
+		 * @return node reached by moving from the given node into the given direction or -1 if this move is not possible
+		 */
+		static int neighbor(int node, Direction dir) {
+			int tile = neighborTile(TILES[node], dir);
+			return tile != -1 ? NODES[tile] : -1;
+		}
+
+		static int node(int row, int col) {
+			return inMapRange(row, col) ? NODES[row * COLS + col] : -1;
+		}
+
+		static int dist(int fromNode, int toNode) {
+			return DIST[fromNode * TILES.length + toNode];
+		}
+	}
+
+	/** Tile where eaten ghosts enter the house and its right neighbor, see {@link #houseEntryTile} */
+	private static final int HOUSE_ENTRY_ROW = 14, HOUSE_ENTRY_COL = 13;
+
+	/**
+	 * Flow field leading eaten ghosts home: for each tile and move direction the direction to take for reaching the house
+	 * entry (one of the two tiles above the door) on a shortest path. Like all ghosts outside of the house, eaten ghosts
+	 * may not reverse, so the search runs on (tile, move direction) states. The field is computed by a backwards
+	 * breadth-first search from the house entry when first needed.
+	 */
+	private static class HomeFlow {
+
+		/** Direction ordinal per state (index: tile index * 4 + move direction ordinal), -1 if there is none */
+		static final byte[] FLOW = new byte[ROWS * COLS * 4];
+
+		static {
+			int numStates = FLOW.length;
+			short[] dist = new short[numStates];
+			Arrays.fill(dist, (short) -1);
+			int[] queue = new int[numStates];
+			int head = 0, tail = 0;
+			for (int col = HOUSE_ENTRY_COL; col <= HOUSE_ENTRY_COL + 1; ++col) {
+				for (Direction dir : DIRECTIONS) {
+					int state = (HOUSE_ENTRY_ROW * COLS + col) * 4 + dir.ordinal();
+					dist[state] = 0;
+					queue[tail++] = state;
+				}
+			}
+			// a state (tile, moveDir) can be reached from the tile behind it by any move direction except the reverse
+			while (head < tail) {
+				int state = queue[head++];
+				Direction dir = DIRECTIONS[state & 3];
+				int tile = state >> 2;
+				int row = tile / COLS - dir.vector.y, col = Math.floorMod(tile % COLS - dir.vector.x, COLS);
+				if (!inMapRange(row, col) || (MOVES[GHOST][row * COLS + col] & dirBit(dir)) == 0) {
+					continue;
+				}
+				for (Direction prevDir : DIRECTIONS) {
+					int prevState = (row * COLS + col) * 4 + prevDir.ordinal();
+					if (prevDir != dir.opposite() && dist[prevState] == -1) {
+						dist[prevState] = (short) (dist[state] + 1);
+						queue[tail++] = prevState;
+					}
+				}
+			}
+			Arrays.fill(FLOW, (byte) -1);
+			for (int state = 0; state < numStates; ++state) {
+				if (dist[state] <= 0) {
+					continue;
+				}
+				int tile = state >> 2;
+				Direction moveDir = DIRECTIONS[state & 3];
+				for (Direction dir : new Direction[] { Direction.UP, Direction.LEFT, Direction.DOWN, Direction.RIGHT }) {
+					if (dir == moveDir.opposite() || (MOVES[GHOST][tile] & dirBit(dir)) == 0) {
+						continue;
+					}
+					int row = tile / COLS + dir.vector.y, col = Math.floorMod(tile % COLS + dir.vector.x, COLS);
+					if (inMapRange(row, col) && dist[(row * COLS + col) * 4 + dir.ordinal()] == dist[state] - 1) {
+						FLOW[state] = (byte) dir.ordinal();
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/** Number of long words of a food bitset (one bit per tile, index: row * COLS + col) */
+	public static final int FOOD_WORDS = (ROWS * COLS + 63) / 64;
+
+	private static final long[] PELLETS_TEMPLATE = new long[FOOD_WORDS];
+	private static final long[] ENERGIZERS_TEMPLATE = new long[FOOD_WORDS];
+
+	static {
 		for (int row = 0; row < ROWS; ++row) {
 			for (int col = 0; col < COLS; ++col) {
-				if (hasUneatenPelletAt(row, col) || hasUneatenPowerPelletAt(row, col)) {
-					++count;
+				int index = row * COLS + col;
+				if (MAP[row][col] == PELLET) {
+					PELLETS_TEMPLATE[index >>> 6] |= 1L << index;
+				} else if (MAP[row][col] == ENERGIZER) {
+					ENERGIZERS_TEMPLATE[index >>> 6] |= 1L << index;
 				}
 			}
 		}
-		totalFoodCount = count;
 	}
 
-	private boolean inRange(int begin, int end, int value) {
+	private static int popCount(long[] bits) {
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	private static int nextSetBit(long[] bits, int fromIndex) {
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		int wordIndex = fromIndex >>> 6;
+		if (wordIndex >= FOOD_WORDS) {
+			return -1;
+		}
+		long word = bits[wordIndex] & (-1L << fromIndex);
+		while (true) {
+			if (word != 0) {
+				return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++wordIndex == FOOD_WORDS) {
+				return -1;
+			}
+			word = bits[wordIndex];
+		}
+	}
+
+	private static int computeFlags(int row, int col) {
+		int flags = 0;
+		if (MAP[row][col] == WALL) {
+			flags |= F_WALL;
+		}
+		if (MAP[row][col] == TUNNEL) {
+			flags |= F_TUNNEL;
+		}
+		if (inRange(10, 17, col) && inRange(15, 19, row)) {
+			flags |= F_HOUSE;
+		}
+		if ((col == 12 || col == 15) && (row == 13 || row == 25)) {
+			flags |= F_ONE_WAY_DOWN;
+		}
+		return flags;
+	}
+
+	private static boolean inRange(int begin, int end, int value) {
 		return begin <= value && value <= end;
 	}
 
-	private boolean inMapRange(int row, int col) {
+	private static boolean inMapRange(int row, int col) {
 		return inRange(0, ROWS - 1, row) && inRange(0, COLS - 1, col);
 	}
 
+	private static int flagsAt(int row, int col) {
+		return inMapRange(row, col) ? TILE_FLAGS[row * COLS + col] : 0;
+	}
+
+	/** Uneaten pellets, one bit per tile */
+	private final long[] pellets = PELLETS_TEMPLATE.clone();
+	/** Uneaten energizers, one bit per tile */
+	private final long[] energizers = ENERGIZERS_TEMPLATE.clone();
+
+	/** Left house entry tile */
+	public final Vector2 houseEntryTile = v(HOUSE_ENTRY_COL, HOUSE_ENTRY_ROW);
+	/** Pixel position of house entry */
+	public final Vector2 houseEntry = v(t(14), t(14) + World.HT);
+	public final float houseTop = t(17);
+	public final float houseBottom = t(18);
+
+	public final int totalFoodCount = popCount(PELLETS_TEMPLATE) + popCount(ENERGIZERS_TEMPLATE);
+	public int eatenFoodCount;
+
+	/**
+	 * @param row tile row
+	 * @param col tile column
+	 * @return index of the tile as used by the food bitsets and iteration methods
+	 */
+	public static int tileIndex(int row, int col) {
+		return row * COLS + col;
+	}
+
+	/**
+	 * @param tileIndex tile index
+	 * @return row of the tile with this index
+	 */
+	public static int indexRow(int tileIndex) {
+		return tileIndex / COLS;
+	}
+
+	/**
+	 * @param tileIndex tile index
+	 * @return column of the tile with this index
+	 */
+	public static int indexCol(int tileIndex) {
+		return tileIndex % COLS;
+	}
+
+	/**
+	 * @param row tile row
+	 * @param col tile column
+	 * @return flags of the tile, tiles outside of the map have no flags
+	 */
+	public int flags(int row, int col) {
+		return flagsAt(row, col);
+	}
+
+	/**
+	 * @param row    tile row
+	 * @param col    tile column
+	 * @param family move family ({@link #PAC_MAN}, {@link #GHOST}, {@link #GHOST_IN_HOUSE})
+	 * @return mask of the directions (see {@link #dirBit(Direction)}) in which the neighbor tile can be entered by a
+	 *         creature of the given move family. Outside of the map all directions are open.
+	 */
+	public int moves(int row, int col, int family) {
+		return inMapRange(row, col) ? MOVES[family][row * COLS + col] : 0b1111;
+	}
+
+	public boolean isWaypoint(int row, int col) {
+		// outside of the map, no neighbor is blocked
+		return !inMapRange(row, col) || (TILE_FLAGS[row * COLS + col] & F_WAYPOINT) != 0;
+	}
+
 	public boolean isWaypoint(Vector2 tile) {
-		int freeNeighbors = 0;
-		for (Direction direction : Direction.values()) {
-			if (!isBlocked(tile.neighbor(direction))) {
-				freeNeighbors++;
-			}
-		}
-		return freeNeighbors >= 3;
+		return isWaypoint(tile.y, tile.x);
 	}
 
 	public boolean isBlocked(int row, int col) {
-		return inMapRange(row, col) && map[row][col] == WALL;
+		return (flags(row, col) & F_WALL) != 0;
 	}
 
 	public boolean isBlocked(Vector2 tile) {
 		return isBlocked(tile.y, tile.x);
 	}
 
+	public boolean isTunnel(int row, int col) {
+		return (flags(row, col) & F_TUNNEL) != 0;
+	}
+
 	public boolean isTunnel(Vector2 tile) {
-		return inMapRange(tile.y, tile.x) && map[tile.y][tile.x] == TUNNEL;
+		return isTunnel(tile.y, tile.x);
 	}
 
 	public boolean isGhostHouse(Vector2 tile) {
-		return inRange(10, 17, tile.x) && inRange(15, 19, tile.y);
+		return (flags(tile.y, tile.x) & F_HOUSE) != 0;
 	}
 
 	public boolean isOneWayDown(Vector2 tile) {
-		return tile.equals(12, 13) || tile.equals(15, 13) || tile.equals(12, 25) || tile.equals(15, 25);
+		return (flags(tile.y, tile.x) & F_ONE_WAY_DOWN) != 0;
 	}
 
 	public boolean hasUneatenPelletAt(Vector2 tile) {
@@ -159,7 +492,11 @@ public class World {
 	}
 
 	public boolean hasUneatenPelletAt(int row, int col) {
-		return inMapRange(row, col) && map[row][col] == PELLET;
+		if (!inMapRange(row, col)) {
+			return false;
+		}
+		int index = row * COLS + col;
+		return (pellets[index >>> 6] & (1L << index)) != 0;
 	}
 
 	public boolean hasUneatenPowerPelletAt(Vector2 tile) {
@@ -167,12 +504,17 @@ public class World {
 	}
 
 	public boolean hasUneatenPowerPelletAt(int row, int col) {
-		return inMapRange(row, col) && map[row][col] == ENERGIZER;
+		if (!inMapRange(row, col)) {
+			return false;
+		}
+		int index = row * COLS + col;
+		return (energizers[index >>> 6] & (1L << index)) != 0;
 	}
 
 	public boolean consumePelletAt(Vector2 tile) {
 		if (hasUneatenPelletAt(tile)) {
-			map[tile.y][tile.x] = PELLET_EATEN;
+			int index = tile.y * COLS + tile.x;
+			pellets[index >>> 6] &= ~(1L << index);
 			eatenFoodCount++;
 			return true;
 		}
@@ -181,23 +523,165 @@ public class World {
 
 	public boolean consumePowerPelletAt(Vector2 tile) {
 		if (hasUneatenPowerPelletAt(tile)) {
-			map[tile.y][tile.x] = ENERGIZER_EATEN;
+			int index = tile.y * COLS + tile.x;
+			energizers[index >>> 6] &= ~(1L << index);
 			eatenFoodCount++;
 			return true;
 		}
 		return false;
 	}
 
-	public void resetFood() {
-		for (int row = 0; row < ROWS; ++row) {
-			for (int col = 0; col < COLS; ++col) {
-				if (map[row][col] == PELLET_EATEN) {
-					map[row][col] = PELLET;
-				} else if (map[row][col] == ENERGIZER_EATEN) {
-					map[row][col] = ENERGIZER;
-				}
+	/**
+	 * @return number of uneaten pellets (without energizers)
+	 */
+	public int pelletsRemaining() {
+		return popCount(pellets);
+	}
+
+	/**
+	 * @return number of uneaten energizers
+	 */
+	public int energizersRemaining() {
+		return popCount(energizers);
+	}
+
+	/**
+	 * @return number of uneaten pellets and energizers
+	 */
+	public int foodRemaining() {
+		return pelletsRemaining() + energizersRemaining();
+	}
+
+	/**
+	 * Iterates over the uneaten pellets like {@link java.util.BitSet#nextSetBit(int)}:
+	 * 
+	 * <pre>
+	 * for (int i = world.nextPelletIndex(0); i != -1; i = world.nextPelletIndex(i + 1)) {
+	 * 	int row = World.indexRow(i), col = World.indexCol(i);
+	 * }
+	 * </pre>
+	 * 
+	 * @param fromIndex tile index where search starts (inclusive)
+	 * @return index of next tile containing an uneaten pellet or -1 if there is none
+	 */
+	public int nextPelletIndex(int fromIndex) {
+		return nextSetBit(pellets, fromIndex);
+	}
+
+	/**
+	 * @param fromIndex tile index where search starts (inclusive)
+	 * @return index of next tile containing an uneaten energizer or -1 if there is none
+	 * @see #nextPelletIndex(int)
+	 */
+	public int nextEnergizerIndex(int fromIndex) {
+		return nextSetBit(energizers, fromIndex);
+	}
+
+	/**
+	 * @param wordIndex index of word, <code>0 &lt;= wordIndex &lt; FOOD_WORDS</code>
+	 * @return word of the uneaten pellets bitset, bit <code>i % 64</code> of word <code>i / 64</code> represents tile
+	 *         index <code>i</code>
+	 */
+	public long pelletBits(int wordIndex) {
+		return pellets[wordIndex];
+	}
+
+	/**
+	 * @param wordIndex index of word, <code>0 &lt;= wordIndex &lt; FOOD_WORDS</code>
+	 * @return word of the uneaten energizers bitset
+	 * @see #pelletBits(int)
+	 */
+	public long energizerBits(int wordIndex) {
+		return energizers[wordIndex];
+	}
+
+	/**
+	 * Saves the food state: the pellet and energizer bitsets.
+	 */
+	void saveState(StateBuffer buffer) {
+		for (int i = 0; i < FOOD_WORDS; ++i) {
+			buffer.putLong(pellets[i]);
+			buffer.putLong(energizers[i]);
+		}
+	}
+
+	void restoreState(StateBuffer buffer) {
+		for (int i = 0; i < FOOD_WORDS; ++i) {
+			pellets[i] = buffer.getLong();
+			energizers[i] = buffer.getLong();
+		}
+		eatenFoodCount = totalFoodCount - foodRemaining();
+	}
+
+	/**
+	 * @return number of tiles Pac-Man can walk on (all tiles of the maze reachable from its start tile)
+	 */
+	public int walkableTileCount() {
+		return Distances.TILES.length;
+	}
+
+	/**
+	 * @param fromRow row of start tile
+	 * @param fromCol column of start tile
+	 * @param toRow   row of goal tile
+	 * @param toCol   column of goal tile
+	 * @return number of moves of a shortest path between the tiles (using the tunnel) or -1 if one of the tiles is not
+	 *         walkable (wall, ghost house, empty tile outside of the maze, outside of the map)
+	 */
+	public int pathDistance(int fromRow, int fromCol, int toRow, int toCol) {
+		int from = Distances.node(fromRow, fromCol), to = Distances.node(toRow, toCol);
+		return from == -1 || to == -1 ? -1 : Distances.dist(from, to);
+	}
+
+	public int pathDistance(Vector2 from, Vector2 to) {
+		return pathDistance(from.y, from.x, to.y, to.x);
+	}
+
+	/**
+	 * @param fromRow row of start tile
+	 * @param fromCol column of start tile
+	 * @param toRow   row of goal tile
+	 * @param toCol   column of goal tile
+	 * @return direction of the first move of a shortest path between the tiles (the first one in {@link Direction}
+	 *         order if there are several) or <code>null</code> if the tiles are equal or one of them is not walkable
+	 */
+	public Direction nextStepToward(int fromRow, int fromCol, int toRow, int toCol) {
+		int from = Distances.node(fromRow, fromCol), to = Distances.node(toRow, toCol);
+		if (from == -1 || to == -1 || from == to) {
+			return null;
+		}
+		int dist = Distances.dist(from, to);
+		for (Direction dir : DIRECTIONS) {
+			int neighbor = Distances.neighbor(from, dir);
+			if (neighbor != -1 && Distances.dist(neighbor, to) == dist - 1) {
+				return dir;
 			}
 		}
+		return null;
+	}
+
+	public Direction nextStepToward(Vector2 from, Vector2 to) {
+		return nextStepToward(from.y, from.x, to.y, to.x);
+	}
+
+	/**
+	 * @param row     tile row
+	 * @param col     tile column
+	 * @param moveDir current move direction of an eaten ghost
+	 * @return direction leading the ghost to the house entry on a shortest path without reversing, or <code>null</code>
+	 *         if the ghost is already at the house entry, outside of the map or cannot reach the entry from here
+	 */
+	public Direction homeDirection(int row, int col, Direction moveDir) {
+		if (!inMapRange(row, col)) {
+			return null;
+		}
+		int dir = HomeFlow.FLOW[(row * COLS + col) * 4 + moveDir.ordinal()];
+		return dir != -1 ? DIRECTIONS[dir] : null;
+	}
+
+	public void resetFood() {
+		System.arraycopy(PELLETS_TEMPLATE, 0, pellets, 0, FOOD_WORDS);
+		System.arraycopy(ENERGIZERS_TEMPLATE, 0, energizers, 0, FOOD_WORDS);
 		eatenFoodCount = 0;
 	}
 }
\ No newline at end of file
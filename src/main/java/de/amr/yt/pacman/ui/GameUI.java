@@ -26,8 +26,10 @@ package de.amr.yt.pacman.ui;
 import static de.amr.yt.pacman.lib.Logging.log;
 import static de.amr.yt.pacman.model.World.t;
 
+import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.DisplayMode;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -37,13 +39,23 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 import de.amr.yt.pacman.controller.GameController;
 import de.amr.yt.pacman.controller.GameState;
+import de.amr.yt.pacman.lib.Direction;
 import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.StartupTimeline;
+import de.amr.yt.pacman.lib.TimingHistogram;
+import de.amr.yt.pacman.lib.TripleBuffer;
 import de.amr.yt.pacman.model.GameModel;
 import de.amr.yt.pacman.model.Ghost;
 import de.amr.yt.pacman.model.PacMan;
@@ -56,6 +68,8 @@ import de.amr.yt.pacman.ui.animation.GhostWalkingAnimation;
 import de.amr.yt.pacman.ui.animation.PacManDyingAnimation;
 import de.amr.yt.pacman.ui.animation.PacManStandingAnimation;
 import de.amr.yt.pacman.ui.animation.PacManWalkingAnimation;
+import de.amr.yt.pacman.ui.render.RenderFrame;
+import de.amr.yt.pacman.ui.render.Sprites;
 import de.amr.yt.pacman.ui.scene.GameScene;
 import de.amr.yt.pacman.ui.scene.IntroScene;
 import de.amr.yt.pacman.ui.scene.PlayScene;
@@ -69,54 +83,178 @@ public class GameUI {
 
 	public static volatile boolean showInfo = false;
 
-	public final Joystick joystick = new Joystick();
+	public final Joystick joystick;
 	private final GameController gameController;
 	private final GameModel game;
-	private final IntroScene introScene;
-	private final PlayScene playScene;
+	private IntroScene introScene;
+	private PlayScene playScene;
 	private final JFrame frame;
+	private final boolean activeRendering;
 	private double canvasScaling;
 	private GameScene previousScene;
+	private double avgSceneDrawMillis;
+	private double avgPresentMillis;
+	private final TimingHistogram paintTimes;
+	private final TimingHistogram keyLatencies;
+
+	/** Canvas and render thread used in active rendering mode */
+	private Canvas activeCanvas;
+	private Thread renderThread;
+	private volatile boolean rendering;
+
+	/** Frames captured by the simulation thread and drawn by the render thread (or the event dispatch thread) */
+	private final TripleBuffer<RenderFrame> frames = new TripleBuffer<>(RenderFrame::new);
+
+	/** Creature positions captured at the previous tick (x, y for Pac-Man and the ghosts) */
+	private final float[] lastGuyPositions = new float[10];
+
+	/** Key codes pressed in the event dispatch thread, processed in the simulation thread */
+	private final Queue<Integer> pressedKeys = new ConcurrentLinkedQueue<>();
+
+	/** Completes on the event dispatch thread when the scenes have been created */
+	public final CompletableFuture<Void> ready;
 
 	/**
 	 * Creates and shows the game user interface. This must be called from the event dispatch thread!
 	 * 
-	 * @param gameController the game controller
-	 * @param scaling        scaling of the canvas displaying the game scenes
+	 * @param gameController  the game controller
+	 * @param scaling         scaling of the canvas displaying the game scenes
+	 * @param activeRendering if <code>true</code>, frames are drawn by an own render thread into a canvas with a buffer
+	 *                        strategy, otherwise via <code>repaint()</code> and the event dispatch thread
+	 * @param assetsLoaded    completes when the assets are loaded. The window is shown while they are still loading,
+	 *                        the scenes are created afterwards without blocking the event dispatch thread (see
+	 *                        {@link #ready}).
 	 */
-	public GameUI(GameController gameController, double scaling) {
+	public GameUI(GameController gameController, double scaling, boolean activeRendering,
+			CompletableFuture<Void> assetsLoaded) {
+		long start = System.nanoTime();
 		this.gameController = gameController;
+		this.activeRendering = activeRendering;
+		this.paintTimes = gameController.game.clock.profiler.phase("paint");
+		this.keyLatencies = gameController.game.clock.profiler.phase("key-latency");
 		this.game = gameController.game;
+		this.joystick = new Joystick(keyLatencies);
 		this.canvasScaling = (scaling == SCALE_MAX)
 				? 0.9 * Toolkit.getDefaultToolkit().getScreenSize().getHeight() / t(World.ROWS)
 				: scaling;
 		Dimension canvasSize = new Dimension((int) (canvasScaling * t(World.COLS)), (int) (canvasScaling * t(World.ROWS)));
 
-		createAnimations();
-
-		introScene = new IntroScene(gameController);
-		playScene = new PlayScene(gameController);
-
 		frame = new JFrame("Pac-Man");
 		frame.addKeyListener(joystick);
 		frame.addKeyListener(new KeyAdapter() {
 			@Override
 			public void keyPressed(KeyEvent e) {
-				onKeyPressed(e.getKeyCode());
+				pressedKeys.add(e.getKeyCode());
 			}
 		});
 		frame.addWindowListener(new WindowAdapter() {
 			@Override
 			public void windowClosing(WindowEvent e) {
-				GameClock.get().stop();
+				game.clock.stop();
+				rendering = false;
 				System.exit(0);
 			}
 		});
-		frame.add(createCanvas(canvasSize));
+		if (activeRendering) {
+			activeCanvas = createActiveCanvas(canvasSize);
+			frame.add(activeCanvas);
+		} else {
+			frame.add(createCanvas(canvasSize));
+		}
 		frame.setResizable(false);
-		frame.setVisible(true);
 		frame.pack();
 		frame.setLocationRelativeTo(null);
+		frame.setVisible(true);
+		if (activeRendering) {
+			startRenderThread();
+		}
+		StartupTimeline.record("window", start, System.nanoTime());
+
+		long assetsWaitStart = System.nanoTime();
+		ready = assetsLoaded.thenRunAsync(() -> {
+			StartupTimeline.record("wait for assets", assetsWaitStart, System.nanoTime());
+			long scenesStart = System.nanoTime();
+			createAnimations();
+			introScene = new IntroScene(gameController);
+			playScene = new PlayScene(gameController);
+			StartupTimeline.record("scenes", scenesStart, System.nanoTime());
+		}, SwingUtilities::invokeLater);
+	}
+
+	private Canvas createActiveCanvas(Dimension size) {
+		Canvas canvas = new Canvas();
+		canvas.setPreferredSize(size);
+		canvas.setSize(size);
+		canvas.setIgnoreRepaint(true);
+		canvas.setFocusable(false); // keys go to the frame
+		log("Game canvas size is %dx%s pixels (active rendering)", canvas.getWidth(), canvas.getHeight());
+		return canvas;
+	}
+
+	private void startRenderThread() {
+		activeCanvas.createBufferStrategy(3);
+		rendering = true;
+		renderThread = new Thread(this::renderLoop, "Renderer");
+		renderThread.setDaemon(true);
+		renderThread.start();
+	}
+
+	/**
+	 * Draws frames into the back buffer and presents them at the display refresh rate. Creature positions are
+	 * interpolated between the last two simulation ticks. Runs on the render thread.
+	 */
+	private void renderLoop() {
+		BufferStrategy strategy = activeCanvas.getBufferStrategy();
+		int refreshRate = activeCanvas.getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+		if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+			refreshRate = GameClock.SIMULATION_RATE;
+		}
+		long period = 1_000_000_000L / refreshRate;
+		log("Active rendering started at %d Hz, buffer strategy: %s", refreshRate,
+				strategy.getCapabilities().isPageFlipping() ? "page flipping" : "blitting");
+		long next = System.nanoTime();
+		RenderFrame presentedFrame = null;
+		while (rendering) {
+			RenderFrame renderFrame = frames.front();
+			if (renderFrame.scene != null) {
+				long tickDuration = 1_000_000_000L / game.clock.getFrequency();
+				float alpha = Math.min(1f, (float) (System.nanoTime() - renderFrame.captureTime) / tickDuration);
+				renderFrame.interpolate(renderFrame.paused ? 1f : alpha);
+				do {
+					do {
+						Graphics g = strategy.getDrawGraphics();
+						paintFrame(g, renderFrame, activeCanvas.getWidth(), activeCanvas.getHeight());
+						g.dispose();
+					} while (strategy.contentsRestored());
+					strategy.show();
+					Toolkit.getDefaultToolkit().sync();
+				} while (strategy.contentsLost());
+				if (renderFrame != presentedFrame) {
+					double millis = (System.nanoTime() - renderFrame.captureTime) / 1e6;
+					avgPresentMillis = avgPresentMillis == 0 ? millis : 0.95 * avgPresentMillis + 0.05 * millis;
+					presentedFrame = renderFrame;
+					StartupTimeline.firstFrameRendered();
+				}
+			}
+			next += period;
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(this, next - now);
+			} else {
+				next = now; // too slow, do not try to catch up
+			}
+		}
+	}
+
+	private void paintFrame(Graphics g, RenderFrame renderFrame, int width, int height) {
+		long start = System.nanoTime();
+		g.setColor(Color.BLACK);
+		g.fillRect(0, 0, width, height);
+		if (renderFrame.scene != null) {
+			drawCurrentGameScene(g, renderFrame);
+			drawTopLayer(g, renderFrame);
+		}
+		paintTimes.record(System.nanoTime() - start);
 	}
 
 	private JComponent createCanvas(Dimension size) {
@@ -130,10 +268,14 @@ public class GameUI {
 			@Override
 			protected void paintComponent(Graphics g) {
 				super.paintComponent(g);
-				g.setColor(Color.BLACK);
-				g.fillRect(0, 0, getWidth(), getHeight());
-				drawCurrentGameScene(g);
-				drawTopLayer(g);
+				RenderFrame renderFrame = frames.front();
+				renderFrame.interpolate(1);
+				paintFrame(g, renderFrame, getWidth(), getHeight());
+				if (renderFrame.captureTime != 0) {
+					double millis = (System.nanoTime() - renderFrame.captureTime) / 1e6;
+					avgPresentMillis = avgPresentMillis == 0 ? millis : 0.95 * avgPresentMillis + 0.05 * millis;
+					StartupTimeline.firstFrameRendered();
+				}
 			}
 		};
 	}
@@ -145,12 +287,24 @@ public class GameUI {
 		for (var ghost : game.ghosts) {
 			ghost.animations.put(Ghost.AnimationKey.WALKING, new GhostWalkingAnimation(ghost));
 			ghost.animations.put(Ghost.AnimationKey.FRIGHTENED, new GhostBlueAnimation());
-			ghost.animations.put(Ghost.AnimationKey.BLINKING, new GhostBlinkingAnimation());
+			ghost.animations.put(Ghost.AnimationKey.BLINKING, new GhostBlinkingAnimation(game.clock));
 			ghost.animations.put(Ghost.AnimationKey.DEAD, new GhostEyesAnimation(ghost));
 			ghost.animations.put(Ghost.AnimationKey.VALUE, new GhostValueAnimation(ghost));
 		}
 	}
 
+	/**
+	 * Processes the joystick events and keys pressed since the last call. Called on the simulation thread, so key
+	 * commands never run concurrently with the game update.
+	 */
+	public void processInput() {
+		joystick.drain();
+		Integer key;
+		while ((key = pressedKeys.poll()) != null) {
+			onKeyPressed(key);
+		}
+	}
+
 	private void onKeyPressed(int key) {
 		switch (key) {
 		case KeyEvent.VK_I -> showInfo = !showInfo;
@@ -161,8 +315,8 @@ public class GameUI {
 		}
 
 		case KeyEvent.VK_S -> game.pacSafe = !game.pacSafe;
-		case KeyEvent.VK_PLUS -> GameClock.get().changeFrequency(5);
-		case KeyEvent.VK_MINUS -> GameClock.get().changeFrequency(-5);
+		case KeyEvent.VK_PLUS -> game.clock.changeFrequency(5);
+		case KeyEvent.VK_MINUS -> game.clock.changeFrequency(-5);
 		default -> {
 			// ignore
 		}
@@ -171,8 +325,43 @@ public class GameUI {
 		currentScene().onKeyPressed(key);
 	}
 
+	/**
+	 * Captures the current scene into a render frame, publishes it and triggers drawing it (render thread or repaint).
+	 * Called on the simulation thread.
+	 */
 	public void render() {
-		frame.repaint();
+		RenderFrame renderFrame = frames.back();
+		GameScene scene = currentScene();
+		renderFrame.scene = scene;
+		renderFrame.ticks = game.clock.getTicks();
+		renderFrame.paused = game.paused;
+		renderFrame.state = gameController.state();
+		renderFrame.stateTimer = gameController.stateTimer();
+		renderFrame.showInfo = showInfo;
+		if (showInfo) {
+			captureInfo(renderFrame);
+		}
+		scene.capture(renderFrame);
+		linkPreviousPosition(renderFrame.pacMan, 0);
+		for (int i = 0; i < renderFrame.ghosts.length; ++i) {
+			linkPreviousPosition(renderFrame.ghosts[i], i + 1);
+		}
+		renderFrame.captureTime = System.nanoTime();
+		frames.publish();
+		if (!activeRendering) {
+			frame.repaint();
+		}
+	}
+
+	private void linkPreviousPosition(RenderFrame.Guy guy, int i) {
+		float lastX = lastGuyPositions[2 * i], lastY = lastGuyPositions[2 * i + 1];
+		// no interpolation across jumps (portal, placement at start position etc.)
+		if (Math.abs(guy.x - lastX) <= World.TS && Math.abs(guy.y - lastY) <= World.TS) {
+			guy.prevX = lastX;
+			guy.prevY = lastY;
+		}
+		lastGuyPositions[2 * i] = guy.x;
+		lastGuyPositions[2 * i + 1] = guy.y;
 	}
 
 	public void update() {
@@ -192,21 +381,24 @@ public class GameUI {
 		};
 	}
 
-	private void drawCurrentGameScene(Graphics g) {
+	private void drawCurrentGameScene(Graphics g, RenderFrame renderFrame) {
 		Graphics2D g2D = (Graphics2D) g.create();
 		g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		g2D.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 		g2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 		g2D.scale(canvasScaling, canvasScaling);
-		currentScene().draw(g2D);
-		if (showInfo) {
-			drawInfo(g2D);
+		long start = System.nanoTime();
+		renderFrame.scene.draw(g2D, renderFrame);
+		double millis = (System.nanoTime() - start) / 1e6;
+		avgSceneDrawMillis = avgSceneDrawMillis == 0 ? millis : 0.95 * avgSceneDrawMillis + 0.05 * millis;
+		if (renderFrame.showInfo) {
+			drawInfo(g2D, renderFrame);
 		}
 		g2D.dispose();
 	}
 
-	private void drawTopLayer(Graphics g) {
-		if (game.paused) {
+	private void drawTopLayer(Graphics g, RenderFrame renderFrame) {
+		if (renderFrame.paused) {
 			String text = "PAUSED";
 			g.setColor(Color.RED);
 			g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 36));
@@ -215,13 +407,16 @@ public class GameUI {
 		}
 	}
 
-	private void drawInfo(Graphics2D g) {
-		g.setColor(Color.WHITE);
-		g.setFont(new Font(Font.DIALOG, Font.PLAIN, 6));
-
-		g.drawString("%2d FPS (Target=%d)".formatted(GameClock.get().getFrameRate(), GameClock.get().getFrequency()), t(1),
-				t(2));
-		String text = "%s (%d)".formatted(gameController.state().name(), gameController.state().timer());
+	private void captureInfo(RenderFrame renderFrame) {
+		renderFrame.infoText = "%2d FPS (Target=%d)".formatted(game.clock.getFrameRate(), game.clock.getFrequency());
+		if (game.clock.getMode() == GameClock.Mode.PRECISE) {
+			renderFrame.jitterText = "Jitter avg %.0f max %.0f us, catch-up %d, dropped %d".formatted(
+					game.clock.getJitterMeanMicros(), game.clock.getJitterMaxMicros(), game.clock.getCatchUpTicks(),
+					game.clock.getDroppedTicks());
+		} else {
+			renderFrame.jitterText = "";
+		}
+		String text = "%s (%d)".formatted(gameController.state().name(), gameController.stateTimer());
 		if (gameController.state() == GameState.PLAYING) {
 			if (game.chasingPhase) {
 				text += " CHASING (%d)".formatted(game.attackTimer);
@@ -229,11 +424,64 @@ public class GameUI {
 				text += " SCATTERING (%d)".formatted(game.attackTimer);
 			}
 		}
-		String joystickText = "Joystick: %s".formatted(joystick.state().isEmpty() ? "middle" : joystick.state().get());
-		g.drawString(joystickText, t(18), t(2));
-		g.drawString(text, t(1), t(3));
-		if (game.pacSafe) {
+		renderFrame.stateText = text;
+		Direction dir = joystick.direction();
+		renderFrame.joystickText = "Joystick: %s lag %.1f ms".formatted(dir != null ? dir : "middle",
+				keyLatencies.percentile(50) / 1e6);
+		renderFrame.pacSafe = game.pacSafe;
+	}
+
+	private void drawInfo(Graphics2D g, RenderFrame renderFrame) {
+		g.setColor(Color.WHITE);
+		g.setFont(new Font(Font.DIALOG, Font.PLAIN, 6));
+		g.drawString("%s Draw %.2f ms%s Latency %.2f ms".formatted(renderFrame.infoText, avgSceneDrawMillis,
+				Sprites.accelerated ? "" : " (no accel)", avgPresentMillis), t(1), t(2));
+		g.drawString(renderFrame.joystickText, t(18), t(2));
+		g.drawString(renderFrame.stateText, t(1), t(3));
+		g.drawString(renderFrame.jitterText, t(1), t(4) - 1);
+		if (renderFrame.pacSafe) {
 			g.drawString("Pac-Man is safe", t(18), t(3));
 		}
+		drawTimingGraph(g, t(1), t(27), t(7));
+	}
+
+	private static final Color[] PHASE_COLORS = { Color.WHITE, Color.GRAY, Color.CYAN, Color.GREEN, Color.YELLOW,
+			Color.ORANGE, Color.MAGENTA, Color.PINK };
+
+	/**
+	 * Draws the recent durations of all profiled phases (log scale from 1us to 100ms) and their p50/p99/max values.
+	 * The histograms are read while being written by other threads, so the values are approximate.
+	 */
+	private void drawTimingGraph(Graphics2D g, int x, int y, int height) {
+		int width = TimingHistogram.RECENT_SIZE;
+		g.setColor(new Color(0, 0, 0, 160));
+		g.fillRect(x, y, t(World.COLS - 2), height);
+		g.setColor(Color.DARK_GRAY);
+		int tickLineY = y + height - graphHeight(1e9 / game.clock.getFrequency(), height);
+		g.drawLine(x, tickLineY, x + width, tickLineY);
+		g.setFont(new Font(Font.DIALOG, Font.PLAIN, 5));
+		var phases = game.clock.profiler.phases();
+		for (int p = 0; p < phases.size(); ++p) {
+			TimingHistogram phase = phases.get(p);
+			g.setColor(PHASE_COLORS[p % PHASE_COLORS.length]);
+			int prevY = -1;
+			for (int age = width - 1; age >= 0; --age) {
+				int sampleY = y + height - graphHeight(phase.recent(age), height);
+				if (prevY != -1) {
+					g.drawLine(x + width - age - 2, prevY, x + width - age - 1, sampleY);
+				}
+				prevY = sampleY;
+			}
+			g.drawString("%s %.0f/%.0f/%.0f".formatted(phase.name, phase.percentile(50) / 1e3, phase.percentile(99) / 1e3,
+					phase.max() / 1e3), x + width + 4, y + 6 + 6 * p);
+		}
+		g.setColor(Color.WHITE);
+		g.drawString("p50/p99/max us", x + width + 4, y + height + 5);
+	}
+
+	private static int graphHeight(double nanos, int height) {
+		// log scale: 1us (1e3 ns) = 0, 100ms (1e8 ns) = height
+		double decades = Math.log10(Math.max(nanos, 1e3)) - 3;
+		return (int) Math.min(height, decades / 5 * height);
 	}
 }
\ No newline at end of file
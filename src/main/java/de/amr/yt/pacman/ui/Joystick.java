@@ -21,73 +21,109 @@ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
 OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
-
 package de.amr.yt.pacman.ui;
 
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.Optional;
 
+import de.amr.yt.pacman.controller.Steering;
 import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.EventRing;
+import de.amr.yt.pacman.lib.TimingHistogram;
+import de.amr.yt.pacman.model.GameModel;
 
 /**
+ * Joystick controlled by the cursor keys.
+ * <p>
+ * Key events are queued with their arrival time by the event dispatch thread and applied by the simulation thread in
+ * {@link #drain()} once per tick. The first pressed direction is held until its key is released. A key pressed and
+ * released within the same tick still steers in this tick, so short taps are not lost.
+ * 
  * @author Armin Reichert
  */
-public class Joystick extends KeyAdapter {
+public class Joystick extends KeyAdapter implements Steering {
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final int PRESSED = 0x100;
 
-	private Direction state;
+	private final EventRing events = new EventRing(64);
+	private final EventRing.EventConsumer applier = this::apply;
+	private final TimingHistogram latencies;
+	private Direction held;
+	private Direction tapped;
+	private long drainTime;
+
+	/**
+	 * @param latencies receives the time from each key event to the tick that applied it
+	 */
+	public Joystick(TimingHistogram latencies) {
+		this.latencies = latencies;
+	}
 
-	public synchronized Optional<Direction> state() {
-		return Optional.ofNullable(state);
+	/**
+	 * @return the direction held or tapped in the current tick or <code>null</code>. Simulation thread only.
+	 */
+	public Direction direction() {
+		return held != null ? held : tapped;
 	}
 
 	@Override
-	public void keyPressed(KeyEvent e) {
-		switch (e.getKeyCode()) {
-		case KeyEvent.VK_UP -> {
-			if (state == null)
-				state = Direction.UP;
-		}
-		case KeyEvent.VK_DOWN -> {
-			if (state == null)
-				state = Direction.DOWN;
-		}
-		case KeyEvent.VK_LEFT -> {
-			if (state == null)
-				state = Direction.LEFT;
-		}
-		case KeyEvent.VK_RIGHT -> {
-			if (state == null)
-				state = Direction.RIGHT;
-		}
-		default -> {
-			// ignore
+	public Direction steer(GameModel game) {
+		return direction();
+	}
+
+	/**
+	 * Applies the key events queued since the last call. Called by the simulation thread at the start of each tick.
+	 */
+	public void drain() {
+		tapped = null;
+		drainTime = System.nanoTime();
+		events.drain(applier);
+	}
+
+	private void apply(int code, long timestamp) {
+		Direction dir = DIRECTIONS[code & ~PRESSED];
+		if ((code & PRESSED) != 0) {
+			if (held == null) {
+				held = dir;
+				tapped = dir;
+			}
+		} else if (held == dir) {
+			held = null;
 		}
+		latencies.record(drainTime - timestamp);
+	}
+
+	/**
+	 * @return number of key events dropped because the simulation did not drain them in time
+	 */
+	public long droppedEvents() {
+		return events.dropped();
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		Direction dir = direction(e.getKeyCode());
+		if (dir != null) {
+			events.offer(dir.ordinal() | PRESSED, System.nanoTime());
 		}
 	}
 
 	@Override
 	public void keyReleased(KeyEvent e) {
-		switch (e.getKeyCode()) {
-		case KeyEvent.VK_UP -> {
-			if (state == Direction.UP)
-				state = null;
-		}
-		case KeyEvent.VK_DOWN -> {
-			if (state == Direction.DOWN)
-				state = null;
-		}
-		case KeyEvent.VK_LEFT -> {
-			if (state == Direction.LEFT)
-				state = null;
-		}
-		case KeyEvent.VK_RIGHT -> {
-			if (state == Direction.RIGHT)
-				state = null;
-		}
-		default -> {
-			// ignore
-		}
+		Direction dir = direction(e.getKeyCode());
+		if (dir != null) {
+			events.offer(dir.ordinal(), System.nanoTime());
 		}
 	}
-}
\ No newline at end of file
+
+	private static Direction direction(int keyCode) {
+		return switch (keyCode) {
+		case KeyEvent.VK_UP -> Direction.UP;
+		case KeyEvent.VK_DOWN -> Direction.DOWN;
+		case KeyEvent.VK_LEFT -> Direction.LEFT;
+		case KeyEvent.VK_RIGHT -> Direction.RIGHT;
+		default -> null;
+		};
+	}
+}
@@ -0,0 +1,48 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.ui.animation;
+
+import java.util.Objects;
+
+/**
+ * Sprite tables of the animation classes.
+ * 
+ * @author Armin Reichert
+ */
+public class AnimationSprites {
+
+	/**
+	 * Builds the sprite tables of all animation classes, so that creating the first animation does not have to. Requires
+	 * the sprites to be loaded.
+	 */
+	public static void load() {
+		Objects.requireNonNull(GhostBlueAnimation.sprites);
+		Objects.requireNonNull(GhostEyesAnimation.ghostEyes);
+		Objects.requireNonNull(GhostValueAnimation.sprites);
+		Objects.requireNonNull(GhostWalkingAnimation.ghostsWalkingSprites);
+		Objects.requireNonNull(PacManDyingAnimation.sprites);
+		Objects.requireNonNull(PacManStandingAnimation.sprite);
+		Objects.requireNonNull(PacManWalkingAnimation.sprites);
+	}
+}
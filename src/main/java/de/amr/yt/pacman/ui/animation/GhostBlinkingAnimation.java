@@ -27,19 +27,23 @@ package de.amr.yt.pacman.ui.animation;
 import java.awt.image.BufferedImage;
 
 import de.amr.yt.pacman.lib.Animation;
+import de.amr.yt.pacman.lib.GameClock;
 
 /**
  * @author Armin Reichert
  */
 public class GhostBlinkingAnimation extends GhostBlueAnimation {
 
-	public GhostBlinkingAnimation() {
+	private final GameClock clock;
+
+	public GhostBlinkingAnimation(GameClock clock) {
+		this.clock = clock;
 		name = "ghost-blinking";
 	}
 
 	@Override
 	public BufferedImage sprite() {
-		int offset = Animation.frame(2, 10) == 0 ? 0 : 2;
+		int offset = Animation.frame(clock, 2, 10) == 0 ? 0 : 2;
 		return sprites.get(frameIndex + offset);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.ui.render;
+
+import static de.amr.yt.pacman.model.World.t;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import de.amr.yt.pacman.model.World;
+
+/**
+ * Offscreen image at device resolution containing the maze and the uneaten (normal) pellets. The image is created once
+ * and then updated incrementally: on each draw, the pellet bitset of the frame is compared with the pellets drawn so
+ * far and only the changed 8x8 cells are redrawn. Energizers are not part of the layer because they blink, they are
+ * drawn as an overlay by the scene.
+ * 
+ * @author Armin Reichert
+ */
+public class MazeLayer {
+
+	private final long[] drawnPellets = new long[World.FOOD_WORDS];
+	private BufferedImage image;
+	private double scaling;
+
+	/**
+	 * Draws the maze and the given uneaten pellets.
+	 * 
+	 * @param g       graphics context (scaled to game scene coordinates)
+	 * @param pellets uneaten pellets bitset (see {@link World#pelletBits(int)})
+	 */
+	public void draw(Graphics2D g, long[] pellets) {
+		double deviceScaling = g.getTransform().getScaleX();
+		if (image == null || deviceScaling != scaling) {
+			createImage(deviceScaling);
+		}
+		update(pellets);
+		Graphics2D g2 = (Graphics2D) g.create();
+		g2.scale(1 / scaling, 1 / scaling);
+		g2.drawImage(image, 0, 0, null);
+		g2.dispose();
+	}
+
+	/**
+	 * Draws the uneaten pellets without the maze (used when the maze is flashing).
+	 * 
+	 * @param g       graphics context
+	 * @param pellets uneaten pellets bitset
+	 */
+	public static void drawPellets(Graphics2D g, long[] pellets) {
+		forEachBit(pellets, i -> Renderer.drawPellet(g, t(World.indexCol(i)), t(World.indexRow(i))));
+	}
+
+	/**
+	 * Calls the action for the index of each set bit of a bitset.
+	 * 
+	 * @param bits   bitset
+	 * @param action action taking the bit index
+	 */
+	public static void forEachBit(long[] bits, IntConsumer action) {
+		for (int w = 0; w < bits.length; ++w) {
+			long word = bits[w];
+			while (word != 0) {
+				action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+	}
+
+	private void createImage(double deviceScaling) {
+		scaling = deviceScaling;
+		int width = (int) Math.ceil(scaling * t(World.COLS));
+		int height = (int) Math.ceil(scaling * t(World.ROWS));
+		image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = createGraphics();
+		Renderer.drawMaze(g, 0, t(3));
+		g.dispose();
+		Arrays.fill(drawnPellets, 0);
+	}
+
+	private Graphics2D createGraphics() {
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.scale(scaling, scaling);
+		return g;
+	}
+
+	private void update(long[] pellets) {
+		Graphics2D g = null;
+		for (int w = 0; w < World.FOOD_WORDS; ++w) {
+			long current = pellets[w];
+			long changed = current ^ drawnPellets[w];
+			if (changed == 0) {
+				continue;
+			}
+			if (g == null) {
+				g = createGraphics();
+			}
+			while (changed != 0) {
+				int bit = Long.numberOfTrailingZeros(changed);
+				changed &= changed - 1;
+				int index = (w << 6) + bit;
+				int x = t(World.indexCol(index)), y = t(World.indexRow(index));
+				if ((current & (1L << bit)) != 0) {
+					Renderer.drawPellet(g, x, y);
+				} else {
+					eraseCell(g, x, y);
+				}
+			}
+			drawnPellets[w] = current;
+		}
+		if (g != null) {
+			g.dispose();
+		}
+	}
+
+	private void eraseCell(Graphics2D g, int x, int y) {
+		Graphics2D cell = (Graphics2D) g.create();
+		cell.clipRect(x, y, World.TS, World.TS);
+		cell.setComposite(AlphaComposite.Clear);
+		cell.setColor(Color.BLACK);
+		cell.fillRect(x, y, World.TS, World.TS);
+		cell.setComposite(AlphaComposite.SrcOver);
+		Renderer.drawMaze(cell, 0, t(3));
+		cell.dispose();
+	}
+}
@@ -0,0 +1,197 @@
+/*
+MIT License
+
+Copyright (c) 2022 Armin Reichert
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+package de.amr.yt.pacman.ui.render;
+
+import java.awt.image.BufferedImage;
+
+import de.amr.yt.pacman.controller.GameState;
+import de.amr.yt.pacman.model.Creature;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.model.PacMan;
+import de.amr.yt.pacman.model.World;
+import de.amr.yt.pacman.ui.scene.GameScene;
+
+/**
+ * Snapshot of everything needed to draw one frame. Frames are filled on the simulation thread and handed to the
+ * rendering thread via a {@link de.amr.yt.pacman.lib.TripleBuffer}, so the renderer never reads the game model. Frame
+ * objects are reused, capturing a frame does not allocate (except the info texts when the info overlay is shown).
+ * 
+ * @author Armin Reichert
+ */
+public class RenderFrame {
+
+	/**
+	 * Snapshot of a creature.
+	 */
+	public static class Guy {
+		public float x;
+		public float y;
+		/** Position at the previous tick (same as current position after a jump, e.g. through a portal) */
+		public float prevX;
+		public float prevY;
+		/** Interpolated position used for drawing, see {@link RenderFrame#interpolate(float)} */
+		public float renderX;
+		public float renderY;
+		public boolean visible;
+		public BufferedImage sprite;
+		public boolean hasTarget;
+		public int targetCol;
+		public int targetRow;
+		public String infoAbove;
+		public String infoBelow;
+
+		void capture(Creature guy, BufferedImage sprite, boolean withInfo) {
+			x = guy.x;
+			y = guy.y;
+			visible = guy.visible;
+			this.sprite = sprite;
+			prevX = renderX = x;
+			prevY = renderY = y;
+			hasTarget = false;
+			infoAbove = infoBelow = null;
+			if (withInfo) {
+				infoBelow = "(%d,%d)".formatted(guy.col(), guy.row());
+			}
+		}
+	}
+
+	/** Scene drawing this frame, <code>null</code> if nothing has been captured yet */
+	public GameScene scene;
+	/** Value of {@link System#nanoTime()} when the frame was captured */
+	public long captureTime;
+	/** Ticks of the game clock, used for blinking effects */
+	public long ticks;
+	public boolean paused;
+	public GameState state;
+	public long stateTimer;
+
+	public int score;
+	public int levelNumber;
+	public int lives;
+	public final int[] levelCounter = new int[8];
+	public int levelCounterSize;
+	public boolean mazeFlashing;
+	public boolean powerPelletsBlinking;
+	public final long[] pellets = new long[World.FOOD_WORDS];
+	public final long[] energizers = new long[World.FOOD_WORDS];
+	public boolean bonusPresent;
+	public boolean bonusEaten;
+	public int bonusSymbol;
+	public int bonusValue;
+	public int bonusCol;
+	public int bonusRow;
+
+	public final Guy pacMan = new Guy();
+	public final Guy[] ghosts = { new Guy(), new Guy(), new Guy(), new Guy() };
+
+	public boolean showInfo;
+	public boolean showTargetTiles;
+	public String infoText;
+	public String stateText;
+	public String jitterText;
+	public String joystickText;
+	public boolean pacSafe;
+
+	// intro scene
+	public long introPassed;
+	public boolean introChasing;
+	public boolean introPelletsBlinking;
+	public int introGhostEaten;
+
+	/**
+	 * Computes the creature draw positions between the previous and the current tick position.
+	 * 
+	 * @param alpha interpolation factor, 0 = previous tick, 1 = current tick
+	 */
+	public void interpolate(float alpha) {
+		pacMan.renderX = pacMan.prevX + (pacMan.x - pacMan.prevX) * alpha;
+		pacMan.renderY = pacMan.prevY + (pacMan.y - pacMan.prevY) * alpha;
+		for (Guy ghost : ghosts) {
+			ghost.renderX = ghost.prevX + (ghost.x - ghost.prevX) * alpha;
+			ghost.renderY = ghost.prevY + (ghost.y - ghost.prevY) * alpha;
+		}
+	}
+
+	/**
+	 * Captures the creatures (position, visibility, current sprite).
+	 * 
+	 * @param game     the game model
+	 * @param withInfo if the creature info texts are also captured
+	 */
+	public void captureGuys(GameModel game, boolean withInfo) {
+		PacMan pac = game.pacMan;
+		pacMan.capture(pac, (BufferedImage) pac.animations.selected().sprite(), withInfo);
+		if (withInfo) {
+			pacMan.infoAbove = (pac.isLosingPower() ? "LOSING POWER" : pac.state.name())
+					+ " %.2f px/tick".formatted(pac.currentSpeed());
+			pacMan.infoBelow += " " + pac.animations.selected();
+		}
+		for (Ghost ghost : game.ghosts) {
+			Guy guy = ghosts[ghost.id];
+			guy.capture(ghost, (BufferedImage) ghost.animations.selected().sprite(), withInfo);
+			if (ghost.targetTile != null) {
+				guy.hasTarget = true;
+				guy.targetCol = ghost.targetTile.x;
+				guy.targetRow = ghost.targetTile.y;
+			}
+			if (withInfo) {
+				guy.infoAbove = ghost.state.name() + (ghost.elroyState > 0 ? " Elroy %d".formatted(ghost.elroyState) : "")
+						+ " %.2f px/tick".formatted(ghost.currentSpeed());
+				guy.infoBelow += " " + ghost.animations.selected();
+			}
+		}
+	}
+
+	/**
+	 * Captures the play scene content: score, food, bonus, creatures etc.
+	 * 
+	 * @param game     the game model
+	 * @param withInfo if the creature info texts are also captured
+	 */
+	public void captureGame(GameModel game, boolean withInfo) {
+		score = game.score;
+		levelNumber = game.level.number;
+		lives = game.lives;
+		levelCounterSize = Math.min(game.levelCounter.size(), levelCounter.length);
+		for (int i = 0; i < levelCounterSize; ++i) {
+			levelCounter[i] = game.levelCounter.get(i);
+		}
+		mazeFlashing = game.mazeFlashing;
+		powerPelletsBlinking = game.powerPelletsBlinking;
+		for (int i = 0; i < World.FOOD_WORDS; ++i) {
+			pellets[i] = game.world.pelletBits(i);
+			energizers[i] = game.world.energizerBits(i);
+		}
+		bonusPresent = game.bonus != null;
+		if (bonusPresent) {
+			bonusEaten = game.bonus.eaten;
+			bonusSymbol = game.bonus.symbol;
+			bonusValue = game.bonus.value;
+			bonusCol = game.bonusTile.x;
+			bonusRow = game.bonusTile.y;
+		}
+		captureGuys(game, withInfo);
+	}
+}
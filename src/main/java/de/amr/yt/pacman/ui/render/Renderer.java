@@ -29,11 +29,9 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
-import de.amr.yt.pacman.model.Creature;
-import de.amr.yt.pacman.model.Ghost;
-import de.amr.yt.pacman.model.PacMan;
 import de.amr.yt.pacman.model.World;
 
 /**
@@ -94,73 +92,47 @@ public class Renderer {
 		g.fillOval(x, y, 8, 8);
 	}
 
-	public static void drawPacMan(Graphics2D g, PacMan pacMan) {
-		drawGuy(g, pacMan, pacMan.animations.selected().sprite());
-	}
-
 	public static Color ghostColor(int id) {
 		return GHOST_COLORS[id];
 	}
 
-	public static void drawGhost(Graphics2D g, Ghost ghost) {
-		drawGuy(g, ghost, ghost.animations.selected().sprite());
-	}
-
-	public static void drawGuy(Graphics2D g, Creature guy, Object spriteObject) {
-		BufferedImage sprite = (BufferedImage) spriteObject;
+	/**
+	 * Draws the creature sprite at its interpolated position. The position is snapped to device pixels (not to game
+	 * pixels), so movement stays smooth at high scaling without blurring the sprite.
+	 */
+	public static void drawGuy(Graphics2D g, RenderFrame.Guy guy) {
+		BufferedImage sprite = guy.sprite;
 		if (guy.visible && sprite != null) {
-			int x = (int) guy.x - sprite.getWidth() / 2;
-			int y = (int) guy.y - sprite.getHeight() / 2;
-			g.drawImage(sprite, x, y, sprite.getWidth(), sprite.getHeight(), null);
-		}
-	}
-
-	public static void drawPacManState(Graphics2D g, PacMan pacMan) {
-		if (pacMan.visible) {
-			g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 6));
-			g.setColor(Color.WHITE);
-
-			int offset = 0;
-
-			String textAbove = pacMan.isLosingPower() ? "LOSING POWER" : pacMan.state.name();
-			textAbove += " %.2f px/tick".formatted(pacMan.currentSpeed());
-			offset = -g.getFontMetrics().stringWidth(textAbove) / 2;
-			g.drawString(textAbove, (int) pacMan.x + offset, (int) pacMan.y - 8);
-
-			String textBelow = "(%d,%d)".formatted(pacMan.tile().x, pacMan.tile().y);
-			textBelow += " " + pacMan.animations.selected();
-			offset = -g.getFontMetrics().stringWidth(textBelow) / 2;
-			g.drawString(textBelow, (int) pacMan.x + offset, (int) pacMan.y + 12);
+			double scaling = g.getTransform().getScaleX();
+			double x = Math.floor((guy.renderX - sprite.getWidth() / 2) * scaling) / scaling;
+			double y = Math.floor((guy.renderY - sprite.getHeight() / 2) * scaling) / scaling;
+			g.drawImage(sprite, AffineTransform.getTranslateInstance(x, y), null);
 		}
 	}
 
-	public static void drawGhostState(Graphics2D g, Ghost ghost) {
-		if (ghost.visible) {
+	public static void drawGuyState(Graphics2D g, RenderFrame.Guy guy) {
+		if (guy.visible && guy.infoAbove != null) {
 			g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 6));
 			g.setColor(Color.WHITE);
 
 			int offset = 0;
 
-			String textAbove = ghost.state.name();
-			textAbove += ghost.elroyState > 0 ? " Elroy %d".formatted(ghost.elroyState) : "";
-			textAbove += " %.2f px/tick".formatted(ghost.currentSpeed());
-			offset = -g.getFontMetrics().stringWidth(textAbove) / 2;
-			g.drawString(textAbove, (int) ghost.x + offset, (int) ghost.y - 8);
+			offset = -g.getFontMetrics().stringWidth(guy.infoAbove) / 2;
+			g.drawString(guy.infoAbove, (int) guy.renderX + offset, (int) guy.renderY - 8);
 
-			String textBelow = "(%d,%d)".formatted(ghost.tile().x, ghost.tile().y);
-			textBelow += " " + ghost.animations.selected();
-			offset = -g.getFontMetrics().stringWidth(textBelow) / 2;
-			g.drawString(textBelow, (int) ghost.x + offset, (int) ghost.y + 12);
+			offset = -g.getFontMetrics().stringWidth(guy.infoBelow) / 2;
+			g.drawString(guy.infoBelow, (int) guy.renderX + offset, (int) guy.renderY + 12);
 		}
 	}
 
-	public static void drawGhostTargetTiles(Graphics2D g, Ghost[] ghosts) {
-		for (Ghost ghost : ghosts) {
-			if (ghost.visible && ghost.targetTile != null) {
-				g.setColor(ghostColor(ghost.id));
-				g.fillRect(t(ghost.targetTile.x) + 2, t(ghost.targetTile.y) + 2, 4, 4);
+	public static void drawGhostTargetTiles(Graphics2D g, RenderFrame.Guy[] ghosts) {
+		for (int id = 0; id < ghosts.length; ++id) {
+			RenderFrame.Guy ghost = ghosts[id];
+			if (ghost.visible && ghost.hasTarget) {
+				g.setColor(ghostColor(id));
+				g.fillRect(t(ghost.targetCol) + 2, t(ghost.targetRow) + 2, 4, 4);
 				g.setStroke(new BasicStroke(0.5f));
-				g.drawLine((int) ghost.x, (int) ghost.y, t(ghost.targetTile.x) + World.HT, t(ghost.targetTile.y) + World.HT);
+				g.drawLine((int) ghost.renderX, (int) ghost.renderY, t(ghost.targetCol) + World.HT, t(ghost.targetRow) + World.HT);
 			}
 		}
 	}
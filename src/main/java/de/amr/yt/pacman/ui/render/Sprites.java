@@ -25,20 +25,33 @@ package de.amr.yt.pacman.ui.render;
 
 import static de.amr.yt.pacman.lib.Logging.log;
 
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
 
 /**
+ * Sprite atlas. All sprites are copied into images compatible with the screen's graphics configuration at load time
+ * (so Java2D can cache them in video memory) and cached by their sheet region.
+ * 
  * @author Armin Reichert
  */
 public class Sprites {
 
+	/** If <code>false</code>, sprites are sub-images of the sheet as loaded by ImageIO (for comparing blit times). */
+	public static boolean accelerated = true;
+
+	private static final Map<Long, BufferedImage> cache = new ConcurrentHashMap<>();
+
 	private static BufferedImage sheet;
 
 	static BufferedImage mazeImage;
@@ -49,7 +62,7 @@ public class Sprites {
 	public static void load() {
 		try {
 			sheet = image("/sprites.png");
-			mazeImage = image("/maze_empty.png");
+			mazeImage = accelerated ? compatibleCopy(image("/maze_empty.png")) : image("/maze_empty.png");
 			bonusSymbols = stripe(2, 3, 7);
 			bonusValues = Map.of( //
 					100, s(0, 9), //
@@ -61,7 +74,7 @@ public class Sprites {
 					3000, s(60, 176, 24, 16), //
 					5000, s(60, 192, 24, 16)); //
 			liveCount = s(8, 1);
-			log("Sprites loaded successfully");
+			log("Sprites loaded successfully (%s)", accelerated ? "compatible images" : "sheet sub-images");
 		} catch (Exception x) {
 			x.printStackTrace();
 			System.exit(42);
@@ -73,7 +86,31 @@ public class Sprites {
 	}
 
 	public static BufferedImage s(int x, int y, int w, int h) {
-		return sheet.getSubimage(x, y, w, h);
+		if (!accelerated) {
+			return sheet.getSubimage(x, y, w, h);
+		}
+		long key = (long) x << 48 | (long) y << 32 | (long) w << 16 | h;
+		return cache.computeIfAbsent(key, k -> compatibleCopy(sheet.getSubimage(x, y, w, h)));
+	}
+
+	/**
+	 * @param source some image
+	 * @return copy of the image with its own raster in the pixel format of the default screen, or in the default ARGB
+	 *         format when running headless
+	 */
+	public static BufferedImage compatibleCopy(BufferedImage source) {
+		BufferedImage copy;
+		if (GraphicsEnvironment.isHeadless()) {
+			copy = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		} else {
+			GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+					.getDefaultConfiguration();
+			copy = gc.createCompatibleImage(source.getWidth(), source.getHeight(), Transparency.TRANSLUCENT);
+		}
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(source, 0, 0, null);
+		g.dispose();
+		return copy;
 	}
 
 	public static List<BufferedImage> stripe(int col, int row, int numCols) {
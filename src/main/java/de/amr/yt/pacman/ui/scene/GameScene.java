@@ -25,6 +25,8 @@ package de.amr.yt.pacman.ui.scene;
 
 import java.awt.Graphics2D;
 
+import de.amr.yt.pacman.ui.render.RenderFrame;
+
 /**
  * @author Armin Reichert
  */
@@ -34,7 +36,20 @@ public interface GameScene {
 
 	void update();
 
-	void draw(Graphics2D g);
+	/**
+	 * Captures the scene content into the given frame. Called on the simulation thread.
+	 * 
+	 * @param frame frame to fill
+	 */
+	void capture(RenderFrame frame);
+
+	/**
+	 * Draws a captured frame. Called on the rendering thread, must not access the game model.
+	 * 
+	 * @param g     graphics context
+	 * @param frame frame captured by this scene
+	 */
+	void draw(Graphics2D g, RenderFrame frame);
 
 	void onKeyPressed(int key);
 
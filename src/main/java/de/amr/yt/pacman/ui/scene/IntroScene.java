@@ -24,11 +24,9 @@ SOFTWARE.
 package de.amr.yt.pacman.ui.scene;
 
 import static de.amr.yt.pacman.lib.Animation.frame;
-import static de.amr.yt.pacman.lib.GameClock.sec;
 import static de.amr.yt.pacman.lib.Logging.log;
 import static de.amr.yt.pacman.model.World.t;
-import static de.amr.yt.pacman.ui.render.Renderer.drawGhost;
-import static de.amr.yt.pacman.ui.render.Renderer.drawPacMan;
+import static de.amr.yt.pacman.ui.render.Renderer.drawGuy;
 import static de.amr.yt.pacman.ui.render.Renderer.drawPellet;
 import static de.amr.yt.pacman.ui.render.Renderer.drawPowerPellet;
 import static de.amr.yt.pacman.ui.render.Renderer.drawScore;
@@ -42,11 +40,11 @@ import java.awt.image.BufferedImage;
 import de.amr.yt.pacman.controller.GameController;
 import de.amr.yt.pacman.controller.GameState;
 import de.amr.yt.pacman.lib.Direction;
-import de.amr.yt.pacman.lib.GameClock;
 import de.amr.yt.pacman.model.GameModel;
 import de.amr.yt.pacman.model.Ghost;
 import de.amr.yt.pacman.model.PacMan;
 import de.amr.yt.pacman.model.World;
+import de.amr.yt.pacman.ui.render.RenderFrame;
 import de.amr.yt.pacman.ui.render.Renderer;
 
 /**
@@ -54,8 +52,6 @@ import de.amr.yt.pacman.ui.render.Renderer;
  */
 public class IntroScene implements GameScene {
 
-	public static final int READY_TO_PLAY_TIME = sec(20);
-
 	private static final String[] GHOST_CHARACTERS = { "SHADOW", "SPEEDY", "BASHFUL", "POKEY" };
 	private static final String[] GHOST_NICKNAMES = { "BLINKY", "PINKY", "INKY", "CLYDE" };
 
@@ -67,6 +63,7 @@ public class IntroScene implements GameScene {
 
 	private final GameController gameController;
 	private final GameModel game;
+	private final int readyToPlayTime;
 
 	private long passed;
 	private boolean pacManChasingGhosts;
@@ -77,6 +74,11 @@ public class IntroScene implements GameScene {
 	public IntroScene(GameController gameController) {
 		this.gameController = gameController;
 		this.game = gameController.game;
+		readyToPlayTime = sec(20);
+	}
+
+	private int sec(double seconds) {
+		return game.clock.sec(seconds);
 	}
 
 	private boolean between(long begin, long end) {
@@ -87,7 +89,7 @@ public class IntroScene implements GameScene {
 	public void onKeyPressed(int key) {
 		switch (key) {
 		case KeyEvent.VK_SPACE -> {
-			if (passed >= READY_TO_PLAY_TIME) {
+			if (passed >= readyToPlayTime) {
 				gameController.enterState(GameState.LEVEL_STARTING);
 			}
 		}
@@ -108,7 +110,7 @@ public class IntroScene implements GameScene {
 
 	@Override
 	public void init() {
-		log("IntroScene initialized at %s", GameClock.get());
+		log("IntroScene initialized at %s", game.clock);
 		passed = 0;
 		powerPelletsBlinking = false;
 		pacManChasingGhosts = false;
@@ -143,16 +145,32 @@ public class IntroScene implements GameScene {
 
 	@Override
 	public void update() {
-		if (between(sec(12), READY_TO_PLAY_TIME)) {
+		if (between(sec(12), readyToPlayTime)) {
 			updateGuys();
 		} else if (expired()) {
 			init();
 		}
 		++passed;
+		if (passed == sec(11.5)) {
+			powerPelletsBlinking = true;
+		}
+		if (pacManChasingGhosts && ghostEaten >= 0 && ghostEaten < game.ghosts.length) {
+			game.ghosts[ghostEaten].selectAnimation(Ghost.AnimationKey.VALUE);
+		}
 	}
 
 	@Override
-	public void draw(Graphics2D g) {
+	public void capture(RenderFrame frame) {
+		frame.captureGuys(game, false);
+		frame.introPassed = passed;
+		frame.introChasing = pacManChasingGhosts;
+		frame.introPelletsBlinking = powerPelletsBlinking;
+		frame.introGhostEaten = ghostEaten;
+	}
+
+	@Override
+	public void draw(Graphics2D g, RenderFrame frame) {
+		long passed = frame.introPassed;
 		drawScore(g, 0, 0, false);
 		if (passed >= sec(1.0)) {
 			drawHeading(g);
@@ -194,39 +212,33 @@ public class IntroScene implements GameScene {
 			drawGhostNickname(g, Ghost.CLYDE);
 		}
 		if (passed >= sec(10.0)) {
-			drawPointsAwarded(g);
+			drawPointsAwarded(g, frame);
 		}
 		if (passed >= sec(11.0)) {
-			drawPacManTargetPowerPellet(g);
-		}
-		if (passed == sec(11.5)) {
-			powerPelletsBlinking = true;
+			drawPacManTargetPowerPellet(g, frame);
 		}
-		if (between(sec(12), READY_TO_PLAY_TIME)) {
-			if (pacManChasingGhosts) {
-				drawPacManChasingGhosts(g);
+		if (sec(12) <= passed && passed <= readyToPlayTime) {
+			if (frame.introChasing) {
+				drawPacManChasingGhosts(g, frame);
 			} else {
-				for (var ghost : game.ghosts) {
-					drawGhost(g, ghost);
+				for (var ghost : frame.ghosts) {
+					drawGuy(g, ghost);
 				}
-				drawPacMan(g, game.pacMan);
+				drawGuy(g, frame.pacMan);
 			}
 		}
-		if (passed >= READY_TO_PLAY_TIME) {
-			drawReadyToPlay(g);
+		if (passed >= readyToPlayTime) {
+			drawReadyToPlay(g, passed);
 		}
 	}
 
-	private void drawPacManChasingGhosts(Graphics2D g) {
-		for (var ghost : game.ghosts) {
-			if (ghost.id == ghostEaten) {
-				ghost.selectAnimation(Ghost.AnimationKey.VALUE);
-			}
-			if (ghost.id >= ghostEaten) {
-				drawGhost(g, ghost);
+	private void drawPacManChasingGhosts(Graphics2D g, RenderFrame frame) {
+		for (int id = 0; id < frame.ghosts.length; ++id) {
+			if (id >= frame.introGhostEaten) {
+				drawGuy(g, frame.ghosts[id]);
 			}
 		}
-		drawPacMan(g, game.pacMan);
+		drawGuy(g, frame.pacMan);
 	}
 
 	private void updateGuys() {
@@ -323,9 +335,9 @@ public class IntroScene implements GameScene {
 		g.drawString("\"" + GHOST_NICKNAMES[id] + "\"", COL_RIGHT, row(id) + 12);
 	}
 
-	private void drawPointsAwarded(Graphics2D g) {
+	private void drawPointsAwarded(Graphics2D g, RenderFrame frame) {
 		drawPellet(g, t(10), t(24));
-		if (!powerPelletsBlinking || frame(passed, 2, 15) == 0) {
+		if (!frame.introPelletsBlinking || frame(frame.introPassed, 2, 15) == 0) {
 			drawPowerPellet(g, t(10), t(26));
 		}
 		g.setColor(Color.WHITE);
@@ -337,16 +349,16 @@ public class IntroScene implements GameScene {
 		g.drawString("PTS", t(15), t(27));
 	}
 
-	private void drawPacManTargetPowerPellet(Graphics2D g) {
-		if (pacManChasingGhosts) {
+	private void drawPacManTargetPowerPellet(Graphics2D g, RenderFrame frame) {
+		if (frame.introChasing) {
 			return;
 		}
-		if (!powerPelletsBlinking || frame(passed, 2, 15) == 0) {
+		if (!frame.introPelletsBlinking || frame(frame.introPassed, 2, 15) == 0) {
 			drawPowerPellet(g, COL_LEFT, t(20));
 		}
 	}
 
-	private void drawReadyToPlay(Graphics2D g) {
+	private void drawReadyToPlay(Graphics2D g, long passed) {
 		if (frame(passed, 2, 30) == 0) {
 			g.setColor(Color.WHITE);
 			g.setFont(Renderer.ARCADE_FONT);
@@ -28,12 +28,9 @@ import static de.amr.yt.pacman.lib.Logging.log;
 import static de.amr.yt.pacman.model.World.t;
 import static de.amr.yt.pacman.ui.render.Renderer.drawBonusSymbol;
 import static de.amr.yt.pacman.ui.render.Renderer.drawBonusValue;
-import static de.amr.yt.pacman.ui.render.Renderer.drawGhost;
-import static de.amr.yt.pacman.ui.render.Renderer.drawGhostState;
 import static de.amr.yt.pacman.ui.render.Renderer.drawGhostTargetTiles;
-import static de.amr.yt.pacman.ui.render.Renderer.drawMaze;
-import static de.amr.yt.pacman.ui.render.Renderer.drawPacMan;
-import static de.amr.yt.pacman.ui.render.Renderer.drawPacManState;
+import static de.amr.yt.pacman.ui.render.Renderer.drawGuy;
+import static de.amr.yt.pacman.ui.render.Renderer.drawGuyState;
 import static de.amr.yt.pacman.ui.render.Renderer.drawScore;
 
 import java.awt.Color;
@@ -43,11 +40,11 @@ import java.awt.event.KeyEvent;
 
 import de.amr.yt.pacman.controller.GameController;
 import de.amr.yt.pacman.controller.GameState;
-import de.amr.yt.pacman.lib.GameClock;
 import de.amr.yt.pacman.model.GameModel;
-import de.amr.yt.pacman.model.Ghost;
 import de.amr.yt.pacman.model.World;
 import de.amr.yt.pacman.ui.GameUI;
+import de.amr.yt.pacman.ui.render.MazeLayer;
+import de.amr.yt.pacman.ui.render.RenderFrame;
 import de.amr.yt.pacman.ui.render.Renderer;
 
 /**
@@ -59,6 +56,7 @@ public class PlayScene implements GameScene {
 
 	private final GameController gameController;
 	private final GameModel game;
+	private final MazeLayer mazeLayer = new MazeLayer();
 
 	public PlayScene(GameController gameController) {
 		this.gameController = gameController;
@@ -82,7 +80,7 @@ public class PlayScene implements GameScene {
 
 	@Override
 	public void init() {
-		log("Initializing PlayScene at game time: %s", GameClock.get());
+		log("Initializing PlayScene at game time: %s", game.clock);
 	}
 
 	@Override
@@ -90,69 +88,72 @@ public class PlayScene implements GameScene {
 	}
 
 	@Override
-	public void draw(Graphics2D g) {
-		drawScore(g, game.score, game.level.number, true);
-		if (!game.mazeFlashing || frame(2, 15) == 0) {
-			drawMaze(g, 0, t(3));
+	public void capture(RenderFrame frame) {
+		frame.captureGame(game, GameUI.showInfo);
+		frame.showTargetTiles = showTargetTiles;
+	}
+
+	@Override
+	public void draw(Graphics2D g, RenderFrame frame) {
+		drawScore(g, frame.score, frame.levelNumber, true);
+		if (!frame.mazeFlashing || frame(frame.ticks, 2, 15) == 0) {
+			mazeLayer.draw(g, frame.pellets);
+		} else {
+			MazeLayer.drawPellets(g, frame.pellets);
 		}
-		g.setColor(Color.PINK);
-		for (int row = 0; row < World.ROWS; ++row) {
-			for (int col = 0; col < World.COLS; ++col) {
-				if (game.world.hasUneatenPelletAt(row, col)) {
-					g.fillOval(t(col) + 3, t(row) + 3, 2, 2);
-				} else if (game.world.hasUneatenPowerPelletAt(row, col)) {
-					if (!game.powerPelletsBlinking || frame(2, 15) == 0) {
-						g.fillOval(t(col), t(row), t(1), t(1));
-					}
+		if (!frame.powerPelletsBlinking || frame(frame.ticks, 2, 15) == 0) {
+			for (int w = 0; w < World.FOOD_WORDS; ++w) {
+				long word = frame.energizers[w];
+				while (word != 0) {
+					int i = (w << 6) + Long.numberOfTrailingZeros(word);
+					Renderer.drawPowerPellet(g, t(World.indexCol(i)), t(World.indexRow(i)));
+					word &= word - 1;
 				}
 			}
 		}
-		if (game.bonus != null) {
-			if (game.bonus.eaten) {
-				drawBonusValue(g, game.bonus.value, t(game.bonusTile.x + 1), t(game.bonusTile.y) + World.HT);
+		if (frame.bonusPresent) {
+			if (frame.bonusEaten) {
+				drawBonusValue(g, frame.bonusValue, t(frame.bonusCol + 1), t(frame.bonusRow) + World.HT);
 			} else {
-				drawBonusSymbol(g, game.bonus.symbol, t(game.bonusTile.x) + World.TS, t(game.bonusTile.y) + World.HT);
+				drawBonusSymbol(g, frame.bonusSymbol, t(frame.bonusCol) + World.TS, t(frame.bonusRow) + World.HT);
 			}
 		}
-		drawPacMan(g, game.pacMan);
-		for (Ghost ghost : game.ghosts) {
-			drawGhost(g, ghost);
+		drawGuy(g, frame.pacMan);
+		for (RenderFrame.Guy ghost : frame.ghosts) {
+			drawGuy(g, ghost);
 		}
-		if (gameController.state() == GameState.READY) {
+		if (frame.state == GameState.READY) {
 			g.setColor(Color.YELLOW);
 			g.setFont(Renderer.ARCADE_FONT.deriveFont(Font.ITALIC | Font.BOLD));
 			g.drawString("READY!", t(11), t(21));
-		} else if (gameController.state() == GameState.GAME_OVER) {
+		} else if (frame.state == GameState.GAME_OVER) {
 			g.setColor(Color.RED);
 			g.setFont(Renderer.ARCADE_FONT.deriveFont(Font.ITALIC | Font.BOLD));
 			g.drawString("GAME  OVER", t(9), t(21));
 		}
-		int livesDisplayed = game.score == 0 && gameController.state() == GameState.LEVEL_STARTING ? game.lives
-				: game.lives - 1;
+		int livesDisplayed = frame.score == 0 && frame.state == GameState.LEVEL_STARTING ? frame.lives : frame.lives - 1;
 		for (int i = 0; i < livesDisplayed; ++i) {
 			int centerX = t(2 + 2 * i) + World.HT;
 			int centerY = t(World.ROWS - 2) + World.TS;
 			Renderer.drawLifeSymbol(g, centerX, centerY);
 		}
-		for (int i = 0; i < game.levelCounter.size(); ++i) {
+		for (int i = 0; i < frame.levelCounterSize; ++i) {
 			int centerX = t(World.COLS - 4 - 2 * i) + World.HT;
 			int centerY = t(World.ROWS - 2) + World.TS;
-			drawBonusSymbol(g, game.levelCounter.get(i), centerX, centerY);
+			drawBonusSymbol(g, frame.levelCounter[i], centerX, centerY);
 		}
-		if (showTargetTiles) {
-			drawGhostTargetTiles(g, game.ghosts);
+		if (frame.showTargetTiles) {
+			drawGhostTargetTiles(g, frame.ghosts);
 		}
-		if (GameUI.showInfo) {
-			drawGuysState(g);
+		if (frame.showInfo) {
+			drawGuysState(g, frame);
 		}
 	}
 
-	private void drawGuysState(Graphics2D g) {
-		g.setColor(Color.WHITE);
-		g.setFont(new Font(Font.MONOSPACED, Font.BOLD, 8));
-		drawPacManState(g, game.pacMan);
-		for (Ghost ghost : game.ghosts) {
-			drawGhostState(g, ghost);
+	private void drawGuysState(Graphics2D g, RenderFrame frame) {
+		drawGuyState(g, frame.pacMan);
+		for (RenderFrame.Guy ghost : frame.ghosts) {
+			drawGuyState(g, ghost);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package de.amr.yt.pacman.test.lib;
+
+import static de.amr.yt.pacman.lib.Direction.DOWN;
+import static de.amr.yt.pacman.lib.Direction.LEFT;
+import static de.amr.yt.pacman.lib.Direction.RIGHT;
+import static de.amr.yt.pacman.lib.Direction.UP;
+
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.Vector2;
+import de.amr.yt.pacman.model.Ghost;
+
+/**
+ * The ghost steering decision as originally implemented: Euclidean distances of all enterable neighbor tiles, computed
+ * every time a ghost enters a new tile. Reference for comparing {@link Ghost#directionTowards(int, int)} against.
+ * 
+ * @author Armin Reichert
+ */
+public class LegacyGhostSteering {
+
+	private static final Direction[] DIR_ORDER = { UP, LEFT, DOWN, RIGHT };
+
+	/**
+	 * @param ghost  a ghost, left unchanged
+	 * @param target target tile
+	 * @return the direction the original implementation would take
+	 */
+	public static Direction directionTowards(Ghost ghost, Vector2 target) {
+		Direction savedWishDir = ghost.wishDir;
+		double minDist = Double.MAX_VALUE;
+		for (Direction direction : DIR_ORDER) {
+			if (direction == ghost.moveDir.opposite()) {
+				continue;
+			}
+			if (ghost.canEnterNeighborTile(direction)) {
+				double dist = ghost.tile().neighbor(direction).euclideanDist(target);
+				if (dist < minDist) {
+					minDist = dist;
+					ghost.wishDir = direction;
+				}
+			}
+		}
+		Direction choice = ghost.wishDir;
+		ghost.wishDir = savedWishDir;
+		return choice;
+	}
+}
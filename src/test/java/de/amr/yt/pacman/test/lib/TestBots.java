@@ -0,0 +1,70 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.HeadlessRunner;
+import de.amr.yt.pacman.controller.MctsBot;
+import de.amr.yt.pacman.controller.Steering;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestBots {
+
+	/** Bots without time budget, playing deterministically */
+	private static final List<String> SCRIPTED_BOTS = List.of("random", "pellets");
+
+	private static GameModel play(Steering steering, long seed) {
+		return play(steering, seed, HeadlessRunner.MAX_GAME_SECONDS * GameClock.SIMULATION_RATE);
+	}
+
+	private static GameModel play(Steering steering, long seed, long maxTicks) {
+		var controller = new GameController(new GameModel(new GameClock(), seed));
+		controller.steering = steering;
+		new HeadlessRunner(controller).playGame(maxTicks);
+		return controller.game;
+	}
+
+	@BeforeClass
+	public static void setup() {
+		Sounds.setEnabled(false);
+	}
+
+	@Test
+	public void testBotsAreDeterministic() {
+		for (String name : SCRIPTED_BOTS) {
+			assertEquals(name, play(Steering.bot(name, 7), 7).score, play(Steering.bot(name, 7), 7).score);
+		}
+	}
+
+	@Test
+	public void testBotsBeatNoSteering() {
+		int noSteeringScore = play(Steering.NONE, 7).score;
+		for (String name : SCRIPTED_BOTS) {
+			assertTrue(name, play(Steering.bot(name, 7), 7).score > noSteeringScore);
+		}
+	}
+
+	@Test
+	public void testMctsBot() {
+		int noSteeringScore = play(Steering.NONE, 7, 2000).score;
+		int score = play(new MctsBot(7, Long.MAX_VALUE, 16, 2), 7, 2000).score;
+		assertEquals(score, play(new MctsBot(7, Long.MAX_VALUE, 16, 2), 7, 2000).score);
+		assertTrue(score > noSteeringScore);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownBot() {
+		Steering.bot("nobody", 0);
+	}
+}
@@ -0,0 +1,68 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.HeadlessRunner;
+import de.amr.yt.pacman.controller.Steering;
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.XorShiftRandom;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestDeterminism {
+
+	private static Steering randomSteering(long seed) {
+		var rnd = new XorShiftRandom(seed);
+		return game -> rnd.nextInt(20) == 0 ? Direction.values()[rnd.nextInt(4)] : null;
+	}
+
+	private static GameModel play(long gameSeed, long inputSeed, long ticks) {
+		var controller = new GameController(new GameModel(new GameClock(), gameSeed));
+		controller.steering = randomSteering(inputSeed);
+		new HeadlessRunner(controller).playGame(ticks);
+		return controller.game;
+	}
+
+	@BeforeClass
+	public static void setup() {
+		Sounds.setEnabled(false);
+	}
+
+	@Test
+	public void testSameSeedSameGame() {
+		GameModel game1 = play(42, 4711, 20_000);
+		GameModel game2 = play(42, 4711, 20_000);
+		assertEquals(game1.score, game2.score);
+		assertEquals(game1.lives, game2.lives);
+		assertEquals(game1.world.eatenFoodCount, game2.world.eatenFoodCount);
+		assertEquals(game1.pacMan.x, game2.pacMan.x, 0);
+		assertEquals(game1.pacMan.y, game2.pacMan.y, 0);
+		for (int id = 0; id < 4; ++id) {
+			assertEquals(game1.ghosts[id].x, game2.ghosts[id].x, 0);
+			assertEquals(game1.ghosts[id].y, game2.ghosts[id].y, 0);
+			assertEquals(game1.ghosts[id].state, game2.ghosts[id].state);
+		}
+	}
+
+	@Test
+	public void testRandomSequence() {
+		var rnd1 = new XorShiftRandom(0);
+		var rnd2 = new XorShiftRandom(0);
+		for (int i = 0; i < 1000; ++i) {
+			assertEquals(rnd1.nextLong(), rnd2.nextLong());
+		}
+		for (int i = 0; i < 1000; ++i) {
+			int value = rnd1.nextInt(7);
+			assertTrue(0 <= value && value < 7);
+		}
+	}
+}
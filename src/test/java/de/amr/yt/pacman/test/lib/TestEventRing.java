@@ -0,0 +1,79 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.amr.yt.pacman.lib.EventRing;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestEventRing {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacityMustBePowerOfTwo() {
+		new EventRing(12);
+	}
+
+	@Test
+	public void testOrderAndOverflow() {
+		EventRing ring = new EventRing(4);
+		for (int i = 0; i < 4; ++i) {
+			assertTrue(ring.offer(i, 100 + i));
+		}
+		assertFalse(ring.offer(4, 104));
+		assertEquals(1, ring.dropped());
+		List<Long> drained = new ArrayList<>();
+		assertEquals(4, ring.drain((code, timestamp) -> drained.add(timestamp - 100 - code)));
+		assertEquals(List.of(0L, 0L, 0L, 0L), drained);
+		assertEquals(0, ring.size());
+	}
+
+	@Test
+	public void testWrapAround() {
+		EventRing ring = new EventRing(4);
+		List<Integer> drained = new ArrayList<>();
+		for (int i = 0; i < 10; ++i) {
+			ring.offer(2 * i, 0);
+			ring.offer(2 * i + 1, 0);
+			ring.drain((code, timestamp) -> drained.add(code));
+		}
+		assertEquals(20, drained.size());
+		for (int i = 0; i < 20; ++i) {
+			assertEquals(i, drained.get(i).intValue());
+		}
+	}
+
+	@Test(timeout = 10_000)
+	public void testProducerConsumer() throws InterruptedException {
+		EventRing ring = new EventRing(16);
+		int n = 5_000;
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < n; ++i) {
+				while (!ring.offer(i, i)) {
+					Thread.yield();
+				}
+			}
+		});
+		producer.start();
+		int[] expected = { 0 };
+		while (expected[0] < n) {
+			int drained = ring.drain((code, timestamp) -> {
+				assertEquals(expected[0], code);
+				assertEquals(expected[0], timestamp);
+				++expected[0];
+			});
+			if (drained == 0) {
+				Thread.yield();
+			}
+		}
+		producer.join();
+		assertEquals(0, ring.size());
+	}
+}
@@ -0,0 +1,110 @@
+package de.amr.yt.pacman.test.lib;
+
+import static de.amr.yt.pacman.lib.Vector2.v;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.HeadlessRunner;
+import de.amr.yt.pacman.controller.Steering;
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.Vector2;
+import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.Ghost;
+import de.amr.yt.pacman.model.GhostState;
+import de.amr.yt.pacman.model.World;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestGhostSteering {
+
+	@BeforeClass
+	public static void setup() {
+		Sounds.setEnabled(false);
+	}
+
+	private int decisions;
+
+	private void compareDecisions(GameModel game) {
+		for (Ghost ghost : game.ghosts) {
+			for (int y = -6; y < 42; y += 5) {
+				for (int x = -6; x < 34; x += 5) {
+					compare(ghost, v(x, y));
+				}
+			}
+			compare(ghost, game.pacMan.tile());
+			compare(ghost, game.world.houseEntryTile);
+			for (Vector2 target : game.ghostScatterTargets) {
+				compare(ghost, target);
+			}
+		}
+	}
+
+	private void compare(Ghost ghost, Vector2 target) {
+		Direction expected = LegacyGhostSteering.directionTowards(ghost, target);
+		Direction actual = ghost.directionTowards(target.x, target.y);
+		if (actual != expected) {
+			fail("%s, target %s: expected %s but got %s".formatted(ghost, target, expected, actual));
+		}
+		++decisions;
+	}
+
+	@Test
+	public void testSameDecisionsAsEuclideanSearch() {
+		var controller = new GameController(new GameModel(new GameClock(), 3));
+		Steering bot = Steering.bot("pellets", 3);
+		controller.steering = game -> {
+			compareDecisions(game);
+			return bot.steer(game);
+		};
+		new HeadlessRunner(controller).playGame(20_000);
+		assertTrue(decisions > 1_000_000);
+	}
+
+	private static int ticksToReturnHome(int row, int col, Direction moveDir, boolean shortestPath) {
+		GameModel game = new GameModel();
+		game.shortestPathHome = shortestPath;
+		Ghost ghost = game.ghosts[0];
+		ghost.placeAtTile(v(col, row), 0, 0);
+		ghost.state = GhostState.EATEN;
+		ghost.moveDir = ghost.wishDir = moveDir;
+		ghost.enteredNewTile = true;
+		int ticks = 0;
+		while (ghost.state == GhostState.EATEN && ticks < 1000) {
+			ghost.update();
+			++ticks;
+		}
+		return ticks;
+	}
+
+	@Test
+	public void testShortestPathHomeIsNeverSlower() {
+		World world = new GameModel().world;
+		int faster = 0;
+		for (int row = 0; row < World.ROWS; ++row) {
+			for (int col = 0; col < World.COLS; ++col) {
+				if (world.pathDistance(row, col, world.houseEntryTile.y, world.houseEntryTile.x) == -1) {
+					continue;
+				}
+				for (Direction moveDir : Direction.values()) {
+					if ((world.moves(row, col, World.GHOST) & World.dirBit(moveDir)) != 0) {
+						int arcadeTicks = ticksToReturnHome(row, col, moveDir, false);
+						int shortestPathTicks = ticksToReturnHome(row, col, moveDir, true);
+						assertTrue(arcadeTicks < 1000);
+						assertTrue(shortestPathTicks <= arcadeTicks);
+						if (shortestPathTicks < arcadeTicks) {
+							++faster;
+						}
+					}
+				}
+			}
+		}
+		assertTrue(faster > 0);
+	}
+}
@@ -0,0 +1,103 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.HeadlessRunner;
+import de.amr.yt.pacman.controller.InputRecording;
+import de.amr.yt.pacman.controller.Steering;
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.XorShiftRandom;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestInputRecording {
+
+	@BeforeClass
+	public static void setup() {
+		Sounds.setEnabled(false);
+	}
+
+	@Test
+	public void testRunLengthEncoding() {
+		var recording = new InputRecording(0, 1);
+		recording.append(null);
+		recording.append(Direction.LEFT);
+		recording.append(Direction.LEFT);
+		recording.append(Direction.UP);
+		recording.append(Direction.UP, true);
+		assertEquals(4, recording.numRuns());
+		assertEquals(5, recording.numTicks());
+		var game = new GameModel();
+		var player = recording.player();
+		assertEquals(null, player.steer(game));
+		assertEquals(Direction.LEFT, player.steer(game));
+		assertEquals(Direction.LEFT, player.steer(game));
+		assertEquals(Direction.UP, player.steer(game));
+		assertFalse(game.pacSafe);
+		assertEquals(Direction.UP, player.steer(game));
+		assertTrue(game.pacSafe);
+		assertEquals(null, player.steer(game));
+	}
+
+	@Test
+	public void testRecorderStopsWhenFinished() {
+		var recording = new InputRecording(0, 1);
+		var recorder = recording.recorder(game -> Direction.LEFT);
+		var game = new GameModel();
+		assertEquals(Direction.LEFT, recorder.steer(game));
+		assertFalse(recording.isFinished());
+		recording.finish();
+		assertTrue(recording.isFinished());
+		assertEquals(Direction.LEFT, recorder.steer(game));
+		assertEquals(1, recording.numTicks());
+	}
+
+	@Test
+	public void testReplayReproducesGame() throws IOException {
+		var rnd = new XorShiftRandom(456);
+		File file = assertReplayReproducesGame(123, false, game -> {
+			if (rnd.nextInt(500) == 0) {
+				game.pacSafe = !game.pacSafe; // like pressing the "S" key
+			}
+			return rnd.nextInt(30) == 0 ? Direction.values()[rnd.nextInt(4)] : null;
+		});
+		assertTrue(file.length() < 4096);
+	}
+
+	@Test
+	public void testReplayReproducesGameWithShortestPathHome() throws IOException {
+		assertReplayReproducesGame(120, true, Steering.bot("pellets", 0));
+	}
+
+	private File assertReplayReproducesGame(long seed, boolean shortestPathHome, Steering steering) throws IOException {
+		var controller = new GameController(new GameModel(new GameClock(), seed));
+		controller.game.shortestPathHome = shortestPathHome;
+		var recording = new InputRecording(controller.game.seed(), 1, shortestPathHome);
+		controller.steering = recording.recorder(steering);
+		long ticks = new HeadlessRunner(controller).playGame(100_000);
+
+		File file = File.createTempFile("pacman", ".rec");
+		file.deleteOnExit();
+		recording.write(file);
+
+		var replayController = new GameController();
+		long replayTicks = new HeadlessRunner(replayController).replay(InputRecording.read(file));
+		assertEquals(ticks, replayTicks);
+		assertEquals(controller.game.score, replayController.game.score);
+		assertEquals(controller.game.level.number, replayController.game.level.number);
+		return file;
+	}
+}
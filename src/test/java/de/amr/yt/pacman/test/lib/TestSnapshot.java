@@ -0,0 +1,73 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.amr.yt.pacman.controller.GameController;
+import de.amr.yt.pacman.controller.GameState;
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.GameClock;
+import de.amr.yt.pacman.lib.Sounds;
+import de.amr.yt.pacman.lib.StateBuffer;
+import de.amr.yt.pacman.model.GameModel;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestSnapshot {
+
+	@BeforeClass
+	public static void setup() {
+		Sounds.setEnabled(false);
+	}
+
+	private static float[] trace(GameController controller, int ticks) {
+		float[] trace = new float[3 * ticks];
+		for (int i = 0; i < ticks; ++i) {
+			controller.updateState();
+			trace[3 * i] = controller.game.score;
+			trace[3 * i + 1] = controller.game.pacMan.x;
+			trace[3 * i + 2] = controller.game.ghosts[3].y;
+		}
+		return trace;
+	}
+
+	@Test
+	public void testRestoreReplaysSameFuture() {
+		var controller = new GameController(new GameModel(new GameClock(), 7));
+		controller.steering = game -> Direction.values()[(game.pacMan.col() + 3 * game.pacMan.row()) % 4];
+		controller.enterState(GameState.LEVEL_STARTING);
+		trace(controller, 2000);
+
+		var snapshot = new StateBuffer();
+		controller.saveState(snapshot);
+		float[] original = trace(controller, 3000);
+		GameState stateAfter = controller.state();
+
+		controller.restoreState(snapshot);
+		float[] replayed = trace(controller, 3000);
+		assertArrayEquals(original, replayed, 0);
+		assertEquals(stateAfter, controller.state());
+	}
+
+	@Test
+	public void testCopyBetweenModels() {
+		var game1 = new GameModel(new GameClock(), 1);
+		var game2 = new GameModel(new GameClock(), 2);
+		game1.world.consumePelletAt(game1.pacManHome.plus(Direction.LEFT.vector));
+		game1.score = 4711;
+		var buffer = new StateBuffer();
+		game1.saveState(buffer);
+		game2.restoreState(buffer);
+		assertEquals(4711, game2.score);
+		assertEquals(1, game2.world.eatenFoodCount);
+		assertEquals(game1.random.getState(), game2.random.getState());
+
+		var copy = new StateBuffer();
+		game2.saveState(copy);
+		assertEquals(buffer.size(), copy.size());
+	}
+}
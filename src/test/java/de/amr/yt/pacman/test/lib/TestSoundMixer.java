@@ -0,0 +1,66 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.amr.yt.pacman.lib.SoundMixer;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestSoundMixer {
+
+	private static final short[] RAMP = { 100, 200, 300 };
+	private static final short[] LOUD = { 30000, 30000 };
+
+	@Test
+	public void testOverlappingInstances() {
+		SoundMixer mixer = new SoundMixer(new short[][] { RAMP }, 4);
+		short[] out = new short[4];
+		mixer.play(0);
+		mixer.mix(out, 1);
+		mixer.play(0);
+		mixer.mix(out, 4);
+		assertArrayEquals(new short[] { 300, 500, 300, 0 }, out);
+		assertFalse(mixer.isPlaying(0));
+	}
+
+	@Test
+	public void testClipping() {
+		SoundMixer mixer = new SoundMixer(new short[][] { LOUD }, 2);
+		short[] out = new short[2];
+		mixer.play(0);
+		mixer.play(0);
+		mixer.mix(out, 2);
+		assertArrayEquals(new short[] { Short.MAX_VALUE, Short.MAX_VALUE }, out);
+	}
+
+	@Test
+	public void testLoopAndStop() {
+		SoundMixer mixer = new SoundMixer(new short[][] { RAMP, LOUD }, 8);
+		short[] out = new short[8];
+		mixer.loop(0);
+		mixer.loop(0); // already looping, ignored
+		mixer.mix(out, 8);
+		assertArrayEquals(new short[] { 100, 200, 300, 100, 200, 300, 100, 200 }, out);
+		assertTrue(mixer.isPlaying(0));
+		mixer.stop(0);
+		mixer.mix(out, 8);
+		assertArrayEquals(new short[8], out);
+		assertFalse(mixer.isPlaying(0));
+	}
+
+	@Test
+	public void testResample() {
+		short[] samples = { 0, 100, 200, 300 };
+		short[] result = SoundMixer.resample(samples, 11025, 44100);
+		assertEquals(16, result.length);
+		assertEquals(0, result[0]);
+		assertEquals(25, result[1]);
+		assertEquals(100, result[4]);
+	}
+}
@@ -0,0 +1,41 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.amr.yt.pacman.lib.TimingHistogram;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestTimingHistogram {
+
+	@Test
+	public void testPercentiles() {
+		TimingHistogram h = new TimingHistogram("test");
+		for (int i = 1; i <= 1000; ++i) {
+			h.record(i * 1000L);
+		}
+		assertEquals(1000, h.count());
+		assertEquals(1_000_000, h.max());
+		long p50 = h.percentile(50), p99 = h.percentile(99);
+		// buckets have a relative error below 12.5%
+		assertTrue(p50 >= 500_000 * 0.875 && p50 <= 500_000);
+		assertTrue(p99 >= 990_000 * 0.875 && p99 <= 990_000);
+		assertEquals(1_000_000, h.recent(0));
+		assertEquals(999_000, h.recent(1));
+	}
+
+	@Test
+	public void testSmallAndLargeValues() {
+		TimingHistogram h = new TimingHistogram("test");
+		h.record(-5);
+		h.record(3);
+		h.record(Long.MAX_VALUE);
+		assertEquals(0, h.percentile(1));
+		assertEquals(Long.MAX_VALUE, h.max());
+		assertTrue(h.percentile(100) > Long.MAX_VALUE / 2);
+	}
+}
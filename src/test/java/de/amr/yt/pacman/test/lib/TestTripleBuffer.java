@@ -0,0 +1,58 @@
+package de.amr.yt.pacman.test.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.amr.yt.pacman.lib.TripleBuffer;
+
+/**
+ * @author Armin Reichert
+ */
+public class TestTripleBuffer {
+
+	static class Slot {
+		long value;
+	}
+
+	@Test
+	public void testHandOver() {
+		TripleBuffer<Slot> buffer = new TripleBuffer<>(Slot::new);
+		Slot initial = buffer.front();
+		assertFalse(buffer.hasFresh());
+		buffer.back().value = 1;
+		buffer.publish();
+		assertTrue(buffer.hasFresh());
+		buffer.back().value = 2;
+		buffer.publish();
+		Slot front = buffer.front();
+		assertNotSame(initial, front);
+		assertEquals(2, front.value);
+		assertSame(front, buffer.front());
+		assertNotSame(front, buffer.back());
+	}
+
+	@Test
+	public void testConcurrentHandOver() throws InterruptedException {
+		TripleBuffer<Slot> buffer = new TripleBuffer<>(Slot::new);
+		final long n = 1_000_000;
+		Thread producer = new Thread(() -> {
+			for (long i = 1; i <= n; ++i) {
+				buffer.back().value = i;
+				buffer.publish();
+			}
+		});
+		producer.start();
+		long last = 0;
+		while (last < n) {
+			long value = buffer.front().value;
+			assertTrue("Values must never go backwards", value >= last);
+			last = value;
+		}
+		producer.join();
+	}
+}
@@ -3,12 +3,19 @@
  */
 package de.amr.yt.pacman.test.lib;
 
+import static de.amr.yt.pacman.lib.Vector2.v;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import de.amr.yt.pacman.lib.Direction;
+import de.amr.yt.pacman.lib.Vector2;
 import de.amr.yt.pacman.model.GameModel;
+import de.amr.yt.pacman.model.World;
 
 /**
  * @author Armin Reichert
@@ -26,5 +33,84 @@ public class TestWorld {
 	public void testFood() {
 		assertEquals(244, game.world.totalFoodCount);
 		assertEquals(0, game.world.eatenFoodCount);
+		assertEquals(240, game.world.pelletsRemaining());
+		assertEquals(4, game.world.energizersRemaining());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testFoodIteration() {
+		int count = 0;
+		for (int i = game.world.nextPelletIndex(0); i != -1; i = game.world.nextPelletIndex(i + 1)) {
+			assertTrue(game.world.hasUneatenPelletAt(World.indexRow(i), World.indexCol(i)));
+			++count;
+		}
+		assertEquals(240, count);
+		count = 0;
+		for (int i = game.world.nextEnergizerIndex(0); i != -1; i = game.world.nextEnergizerIndex(i + 1)) {
+			assertTrue(game.world.hasUneatenPowerPelletAt(World.indexRow(i), World.indexCol(i)));
+			++count;
+		}
+		assertEquals(4, count);
+	}
+
+	@Test
+	public void testFoodReset() {
+		assertTrue(game.world.consumePelletAt(v(1, 4)));
+		assertFalse(game.world.consumePelletAt(v(1, 4)));
+		assertTrue(game.world.consumePowerPelletAt(v(1, 6)));
+		assertEquals(2, game.world.eatenFoodCount);
+		assertEquals(242, game.world.foodRemaining());
+		game.world.resetFood();
+		assertEquals(0, game.world.eatenFoodCount);
+		assertEquals(244, game.world.foodRemaining());
+		assertTrue(game.world.hasUneatenPelletAt(4, 1));
+	}
+
+	@Test
+	public void testPathDistances() {
+		World world = game.world;
+		assertEquals(0, world.pathDistance(v(1, 4), v(1, 4)));
+		assertEquals(1, world.pathDistance(v(1, 4), v(2, 4)));
+		assertEquals(1, world.pathDistance(v(0, 17), v(27, 17)));
+		assertEquals(world.pathDistance(v(1, 4), v(26, 32)), world.pathDistance(v(26, 32), v(1, 4)));
+		assertEquals(-1, world.pathDistance(v(0, 0), v(1, 4)));
+		assertEquals(-1, world.pathDistance(v(1, 4), v(13, 17)));
+		assertEquals(-1, world.pathDistance(v(-1, 17), v(1, 4)));
+		assertEquals(-1, world.pathDistance(v(0, 13), v(1, 4)));
+	}
+
+	@Test
+	public void testWalkableTilesAreConnected() {
+		World world = game.world;
+		assertEquals(300, world.walkableTileCount());
+		int walkable = 0;
+		for (int i = 0; i < World.ROWS * World.COLS; ++i) {
+			int dist = world.pathDistance(World.indexRow(i), World.indexCol(i), 26, 13);
+			if (dist != -1) {
+				++walkable;
+				assertEquals(dist, world.pathDistance(26, 13, World.indexRow(i), World.indexCol(i)));
+			}
+		}
+		assertEquals(300, walkable);
+	}
+
+	@Test
+	public void testNextStepFollowsShortestPath() {
+		World world = game.world;
+		Vector2 goal = v(26, 32);
+		for (int i = world.nextPelletIndex(0); i != -1; i = world.nextPelletIndex(i + 1)) {
+			Vector2 tile = v(World.indexCol(i), World.indexRow(i));
+			int dist = world.pathDistance(tile, goal);
+			assertTrue(dist > 0 || tile.equals(goal));
+			for (int steps = 0; steps < dist; ++steps) {
+				Direction dir = world.nextStepToward(tile, goal);
+				tile = tile.neighbor(dir);
+				if (tile.x < 0 || tile.x >= World.COLS) {
+					tile = v(Math.floorMod(tile.x, World.COLS), tile.y);
+				}
+			}
+			assertEquals(goal, tile);
+			assertNull(world.nextStepToward(goal, goal));
+		}
+	}
+}